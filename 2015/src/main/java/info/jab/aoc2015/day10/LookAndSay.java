@@ -11,51 +11,12 @@ public class LookAndSay implements Solver<Integer> {
     @Override
     public Integer solvePartOne(final String fileName) {
         String input = ResourceLines.line(fileName);
-        String result = applyLookAndSay(input, PART1_ITERATIONS);
-        return result.length();
+        return Math.toIntExact(AudioactiveDecay.of(input).length(PART1_ITERATIONS));
     }
 
     @Override
     public Integer solvePartTwo(final String fileName) {
         String input = ResourceLines.line(fileName);
-        String result = applyLookAndSay(input, PART2_ITERATIONS);
-        return result.length();
-    }
-
-    private String applyLookAndSay(String input, int iterations) {
-        String sequence = input;
-        for (int i = 0; i < iterations; i++) {
-            sequence = generateNextSequence(sequence);
-        }
-        return sequence;
-    }
-
-    private String generateNextSequence(String sequence) {
-        if (sequence.isEmpty()) {
-            return sequence;
-        }
-        
-        StringBuilder nextSequence = new StringBuilder();
-        char currentChar = sequence.charAt(0);
-        int count = 1;
-        
-        for (int i = 1; i < sequence.length(); i++) {
-            char nextChar = sequence.charAt(i);
-            if (nextChar == currentChar) {
-                count++;
-            } else {
-                appendRun(nextSequence, count, currentChar);
-                currentChar = nextChar;
-                count = 1;
-            }
-        }
-        
-        // Append the final run
-        appendRun(nextSequence, count, currentChar);
-        return nextSequence.toString();
-    }
-
-    private void appendRun(StringBuilder builder, int count, char character) {
-        builder.append(count).append(character);
+        return Math.toIntExact(AudioactiveDecay.of(input).length(PART2_ITERATIONS));
     }
 }
@@ -1,107 +1,106 @@
 package info.jab.aoc2015.day12;
 
 import java.io.IOException;
-import java.util.Iterator;
+import java.io.InputStream;
+import java.util.Arrays;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.putoet.resources.ResourceLines;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
 
 import info.jab.aoc.Solver;
 
+/**
+ * Sums the numbers of a JSON document while streaming its tokens, no tree is built.
+ *
+ * Every open array or object has a frame with its running sum and, for objects, whether one of its values is
+ * "red". Closing a container adds its sum to the parent unless it is a red object, so both answers come out of
+ * one pass with memory proportional to the nesting depth.
+ */
 public class JSONAbacus implements Solver<Integer> {
 
-    private final ObjectMapper objectMapper = new ObjectMapper()
-        .configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+        .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+        // Memory only grows with the nesting, so the default limit of 1000 levels is not needed
+        .streamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(Integer.MAX_VALUE).build())
+        .build();
 
-    private int calculateSum(JsonNode node) {
-        int sum = 0;
+    /**
+     * @param all The sum of every number
+     * @param withoutRed The sum of the numbers outside objects with a "red" value
+     */
+    public record Sums(long all, long withoutRed) {}
 
-        // If it's a number, add it
-        if (node.isNumber()) {
-            return node.asInt();
-        }
-
-        // If it's an array, process each element
-        if (node.isArray()) {
-            Iterator<JsonNode> elements = node.elements();
-            while (elements.hasNext()) {
-                sum += calculateSum(elements.next());
-            }
-            return sum;
-        }
-
-        // If it's an object, process each field
-        if (node.isObject()) {
-            Iterator<JsonNode> fields = node.elements();
-            while (fields.hasNext()) {
-                sum += calculateSum(fields.next());
-            }
-            return sum;
-        }
-
-        // If it's a string or other type, return 0
-        return 0;
+    @Override
+    public Integer solvePartOne(String fileName) {
+        return Math.toIntExact(sums(fileName).all());
     }
 
-    private int calculateSumIgnoringRed(JsonNode node) {
-        int sum = 0;
-
-        // If it's a number, add it
-        if (node.isNumber()) {
-            return node.asInt();
-        }
-
-        // If it's an array, process each element
-        if (node.isArray()) {
-            Iterator<JsonNode> elements = node.elements();
-            while (elements.hasNext()) {
-                sum += calculateSumIgnoringRed(elements.next());
-            }
-            return sum;
-        }
-
-        // If it's an object, check if it contains "red"
-        if (node.isObject()) {
-            // First check if any value is "red"
-            Iterator<JsonNode> values = node.elements();
-            while (values.hasNext()) {
-                JsonNode value = values.next();
-                if (value.isTextual() && value.asText().equals("red")) {
-                    return 0; // Ignore the entire object
-                }
-            }
-
-            // If it doesn't contain "red", process normally
-            Iterator<JsonNode> fields = node.elements();
-            while (fields.hasNext()) {
-                sum += calculateSumIgnoringRed(fields.next());
-            }
-        }
-
-        return sum;
+    @Override
+    public Integer solvePartTwo(String fileName) {
+        return Math.toIntExact(sums(fileName).withoutRed());
     }
 
-    @Override
-    public Integer solvePartOne(String fileName) {
-        try {
-            String content = ResourceLines.line(fileName);
-            JsonNode rootNode = objectMapper.readTree(content);
-            return calculateSum(rootNode);
+    private Sums sums(String fileName) {
+        try (InputStream input = JSONAbacus.class.getResourceAsStream(fileName)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Invalid resource name '" + fileName + "'");
+            }
+            return sums(input);
         } catch (IOException e) {
             throw new RuntimeException("Error processing JSON", e);
         }
     }
 
-    @Override
-    public Integer solvePartTwo(String fileName) {
-        try {
-            String content = ResourceLines.line(fileName);
-            JsonNode rootNode = objectMapper.readTree(content);
-            return calculateSumIgnoringRed(rootNode);
-        } catch (IOException e) {
-            throw new RuntimeException("Error processing JSON", e);
+    /**
+     * Both sums of the document, in a single pass
+     */
+    public Sums sums(InputStream input) throws IOException {
+        // Frame 0 is the document itself
+        long[] frameSums = new long[16];
+        boolean[] objects = new boolean[16];
+        boolean[] red = new boolean[16];
+        int depth = 0;
+        long all = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> {
+                        if (++depth == frameSums.length) {
+                            frameSums = Arrays.copyOf(frameSums, depth * 2);
+                            objects = Arrays.copyOf(objects, depth * 2);
+                            red = Arrays.copyOf(red, depth * 2);
+                        }
+                        frameSums[depth] = 0;
+                        objects[depth] = token == JsonToken.START_OBJECT;
+                        red[depth] = false;
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        if (!red[depth]) {
+                            frameSums[depth - 1] += frameSums[depth];
+                        }
+                        depth--;
+                    }
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                        long value = parser.getValueAsLong();
+                        all += value;
+                        frameSums[depth] += value;
+                    }
+                    // Inside an object every string token is a value, names come as FIELD_NAME
+                    case VALUE_STRING -> {
+                        if (objects[depth] && "red".equals(parser.getText())) {
+                            red[depth] = true;
+                        }
+                    }
+                    default -> {
+                        // Field names, booleans and nulls do not count
+                    }
+                }
+            }
         }
+        return new Sums(all, frameSums[0]);
     }
 }
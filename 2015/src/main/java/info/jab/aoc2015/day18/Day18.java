@@ -8,7 +8,7 @@ import info.jab.aoc.Solver;
  */
 public class Day18 implements Day<Integer> {
 
-    private final Solver<Integer> lightGrid = new LightGrid();
+    private final Solver<Integer> lightGrid = new LightGrid2();
 
     @Override
     public Integer getPart1Result(final String fileName) {
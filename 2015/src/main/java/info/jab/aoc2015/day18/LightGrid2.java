@@ -0,0 +1,42 @@
+package info.jab.aoc2015.day18;
+
+import com.putoet.grid.GridUtils;
+import com.putoet.grid.LifeAutomaton;
+import com.putoet.resources.ResourceLines;
+import info.jab.aoc.Solver;
+
+/**
+ * Bit-parallel LightGrid: the lights are simulated with a LifeAutomaton, which stores every row as a bitset and
+ * counts the neighbours of 64 lights per operation. Part two makes the corners stuck instead of resetting them.
+ */
+public class LightGrid2 implements Solver<Integer> {
+
+    private static final char ON = '#';
+
+    @Override
+    public Integer solvePartOne(String fileName) {
+        return solvePartOneWithSteps(fileName, 100);
+    }
+
+    public Integer solvePartOneWithSteps(String fileName, int steps) {
+        LifeAutomaton lights = parse(fileName);
+        lights.step(LifeAutomaton.Rule.CONWAY, steps);
+        return (int) lights.population();
+    }
+
+    @Override
+    public Integer solvePartTwo(String fileName) {
+        return solvePartTwoWithSteps(fileName, 100);
+    }
+
+    public Integer solvePartTwoWithSteps(String fileName, int steps) {
+        LifeAutomaton lights = parse(fileName);
+        lights.stickCorners();
+        lights.step(LifeAutomaton.Rule.CONWAY, steps);
+        return (int) lights.population();
+    }
+
+    private LifeAutomaton parse(String fileName) {
+        return LifeAutomaton.of(GridUtils.of(ResourceLines.list(fileName)), ON);
+    }
+}
@@ -2,8 +2,11 @@ package info.jab.aoc2015.day23;
 
 import com.putoet.resources.ResourceLines;
 import info.jab.aoc.Solver;
+import info.jab.aoc2015.day23.instructions.CompiledProgram;
+import info.jab.aoc2015.day23.instructions.ExecutionResult;
 import info.jab.aoc2015.day23.instructions.Instruction;
 import info.jab.aoc2015.day23.instructions.InstructionParser;
+import info.jab.aoc2015.day23.instructions.ProgramOptimizer;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,19 +20,61 @@ public class TuringComputer implements Solver<Integer> {
      */
     private static final int MAX_INSTRUCTIONS = 1_000_000;
 
+    /**
+     * Instruction budget of the fast mode, or -1 to interpret the parsed instructions directly
+     */
+    private final long instructionBudget;
+
+    public TuringComputer() {
+        this.instructionBudget = -1;
+    }
+
+    private TuringComputer(long instructionBudget) {
+        if (instructionBudget < 0) {
+            throw new IllegalArgumentException("Instruction budget must not be negative: " + instructionBudget);
+        }
+        this.instructionBudget = instructionBudget;
+    }
+
+    /**
+     * A computer that runs the program through {@link ProgramOptimizer}, so seeds needing billions of
+     * instructions finish quickly. Fused blocks are charged for every instruction they replace.
+     *
+     * @param instructionBudget The maximum number of instructions to execute
+     * @return The fast computer
+     */
+    public static TuringComputer fast(long instructionBudget) {
+        return new TuringComputer(instructionBudget);
+    }
+
     @Override
     public Integer solvePartOne(String fileName) {
-        List<String> instructionLines = ResourceLines.list(fileName);
-        return executeProgram(instructionLines, 0, 0);
+        return Math.toIntExact(run(fileName, 0, 0).b());
     }
 
     @Override
     public Integer solvePartTwo(String fileName) {
+        return Math.toIntExact(run(fileName, 1, 0).b());
+    }
+
+    /**
+     * Run the program with the given initial registers
+     *
+     * @param fileName The program resource
+     * @param initialA The initial value of register a
+     * @param initialB The initial value of register b
+     * @return The final registers and the number of executed instructions
+     */
+    public ExecutionResult run(String fileName, long initialA, long initialB) {
         List<String> instructionLines = ResourceLines.list(fileName);
-        return executeProgram(instructionLines, 1, 0);
+        if (instructionBudget < 0) {
+            return executeProgram(instructionLines, Math.toIntExact(initialA), Math.toIntExact(initialB));
+        }
+        CompiledProgram program = ProgramOptimizer.optimize(InstructionParser.parse(instructionLines));
+        return program.run(initialA, initialB, instructionBudget);
     }
 
-    private Integer executeProgram(List<String> instructionLines, int initialA, int initialB) {
+    private ExecutionResult executeProgram(List<String> instructionLines, int initialA, int initialB) {
         List<Instruction> instructions = InstructionParser.parse(instructionLines);
         Map<String, Integer> registers = new HashMap<>();
         registers.put("a", initialA);
@@ -49,6 +94,6 @@ public class TuringComputer implements Solver<Integer> {
             instructionCount++;
         }
 
-        return registers.get("b");
+        return new ExecutionResult(registers.get("a"), registers.get("b"), instructionCount);
     }
 }
@@ -0,0 +1,211 @@
+package info.jab.aoc2015.day23.instructions;
+
+/**
+ * Program produced by {@link ProgramOptimizer}: opcodes and operands in primitive arrays, registers in long slots
+ * and fused blocks attached to their first instruction.
+ */
+public final class CompiledProgram {
+
+    static final int HLF = 0;
+    static final int TPL = 1;
+    static final int INC = 2;
+    static final int JMP = 3;
+    static final int JIE = 4;
+    static final int JIO = 5;
+
+    static final int NO_FUSION = 0;
+    static final int AFFINE = 1;
+    static final int LOOP = 2;
+
+    final int[] op;
+    final int[] register;
+    final int[] offset;
+
+    private final int[] fusion;
+    private final int[] fusedLength;
+    private final long[] fusedMultiplier;
+    private final long[] fusedIncrement;
+    private final Loop[] fusedLoop;
+
+    CompiledProgram(int[] op, int[] register, int[] offset) {
+        this.op = op;
+        this.register = register;
+        this.offset = offset;
+        this.fusion = new int[op.length];
+        this.fusedLength = new int[op.length];
+        this.fusedMultiplier = new long[op.length];
+        this.fusedIncrement = new long[op.length];
+        this.fusedLoop = new Loop[op.length];
+    }
+
+    void fuseAffine(int pc, int length, long multiplier, long increment) {
+        fusion[pc] = AFFINE;
+        fusedLength[pc] = length;
+        fusedMultiplier[pc] = multiplier;
+        fusedIncrement[pc] = increment;
+    }
+
+    void fuseLoop(int pc, Loop loop) {
+        fusion[pc] = LOOP;
+        fusedLoop[pc] = loop;
+    }
+
+    boolean isFused(int pc) {
+        return fusion[pc] != NO_FUSION;
+    }
+
+    public int size() {
+        return op.length;
+    }
+
+    /**
+     * Number of fused blocks found by the optimizer
+     */
+    public int fusedBlocks() {
+        int count = 0;
+        for (int kind : fusion) {
+            if (kind != NO_FUSION) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run the program with the given initial registers.
+     *
+     * @param initialA The initial value of register a
+     * @param initialB The initial value of register b
+     * @param instructionBudget The maximum number of original instructions to execute
+     * @return The final registers and the executed instruction count
+     * @throws IllegalStateException if the program needs more instructions than the budget
+     * @throws ArithmeticException if a register overflows a long
+     */
+    public ExecutionResult run(long initialA, long initialB, long instructionBudget) {
+        final long[] r = {initialA, initialB};
+        final int size = op.length;
+        long executed = 0;
+        int pc = 0;
+
+        while (pc >= 0 && pc < size) {
+            switch (fusion[pc]) {
+                case AFFINE -> {
+                    executed = charge(executed, fusedLength[pc], instructionBudget);
+                    final int slot = register[pc];
+                    r[slot] = Math.addExact(Math.multiplyExact(r[slot], fusedMultiplier[pc]), fusedIncrement[pc]);
+                    pc += fusedLength[pc];
+                    continue;
+                }
+                case LOOP -> {
+                    final Loop loop = fusedLoop[pc];
+                    // The program is deterministic, so coming back to the loop head with the same registers never ends
+                    long headA = r[0];
+                    long headB = r[1];
+                    int block = 0;
+                    while (true) {
+                        executed = charge(executed, loop.length[block], instructionBudget);
+                        for (int i = loop.opStart[block]; i < loop.opStart[block + 1]; i++) {
+                            final int slot = loop.opRegister[i];
+                            r[slot] = loop.opHalve[i]
+                                    ? r[slot] / 2
+                                    : Math.addExact(Math.multiplyExact(r[slot], loop.opMultiplier[i]), loop.opIncrement[i]);
+                        }
+                        final boolean taken = switch (loop.branch[block]) {
+                            case JMP -> true;
+                            case JIE -> r[loop.branchRegister[block]] % 2 == 0;
+                            case JIO -> r[loop.branchRegister[block]] == 1;
+                            default -> false;
+                        };
+                        final int next = taken ? loop.takenBlock[block] : loop.fallBlock[block];
+                        if (next < 0) {
+                            pc = taken ? loop.takenExit[block] : loop.fallExit[block];
+                            break;
+                        }
+                        if (next == 0) {
+                            if (r[0] == headA && r[1] == headB) {
+                                throw new IllegalStateException("Program never terminates: loop at " + pc + " repeats");
+                            }
+                            headA = r[0];
+                            headB = r[1];
+                        }
+                        block = next;
+                    }
+                    continue;
+                }
+                default -> {
+                    // No fused block at this address
+                }
+            }
+
+            executed = charge(executed, 1, instructionBudget);
+            switch (op[pc]) {
+                case HLF -> {
+                    r[register[pc]] /= 2;
+                    pc++;
+                }
+                case TPL -> {
+                    r[register[pc]] = Math.multiplyExact(r[register[pc]], 3);
+                    pc++;
+                }
+                case INC -> {
+                    r[register[pc]] = Math.incrementExact(r[register[pc]]);
+                    pc++;
+                }
+                case JMP -> pc += offset[pc];
+                case JIE -> pc += r[register[pc]] % 2 == 0 ? offset[pc] : 1;
+                case JIO -> pc += r[register[pc]] == 1 ? offset[pc] : 1;
+                default -> throw new IllegalStateException("Unknown opcode " + op[pc]);
+            }
+        }
+
+        return new ExecutionResult(r[0], r[1], executed);
+    }
+
+    private static long charge(long executed, int instructions, long budget) {
+        final long total = executed + instructions;
+        if (total > budget) {
+            throw new IllegalStateException(
+                    "Program execution exceeded maximum instruction limit of " + budget);
+        }
+        return total;
+    }
+
+    /**
+     * A loop fused by {@link ProgramOptimizer}, as basic blocks: straight-line register updates, where runs of
+     * tpl/inc on one register are already composed, then a branch. Block 0 is the loop head. A successor block of
+     * -1 leaves the loop for the matching exit address.
+     */
+    static final class Loop {
+        // Block b runs the updates opStart[b] .. opStart[b + 1], then its branch; length counts its instructions
+        final int[] opStart;
+        final int[] length;
+        final int[] opRegister;
+        final boolean[] opHalve;
+        final long[] opMultiplier;
+        final long[] opIncrement;
+        // JMP, JIE or JIO, anything else falls through
+        final int[] branch;
+        final int[] branchRegister;
+        final int[] takenBlock;
+        final int[] fallBlock;
+        final int[] takenExit;
+        final int[] fallExit;
+
+        Loop(int[] opStart, int[] length, int[] opRegister, boolean[] opHalve, long[] opMultiplier,
+                long[] opIncrement, int[] branch, int[] branchRegister, int[] takenBlock, int[] fallBlock,
+                int[] takenExit, int[] fallExit) {
+            this.opStart = opStart;
+            this.length = length;
+            this.opRegister = opRegister;
+            this.opHalve = opHalve;
+            this.opMultiplier = opMultiplier;
+            this.opIncrement = opIncrement;
+            this.branch = branch;
+            this.branchRegister = branchRegister;
+            this.takenBlock = takenBlock;
+            this.fallBlock = fallBlock;
+            this.takenExit = takenExit;
+            this.fallExit = fallExit;
+        }
+    }
+}
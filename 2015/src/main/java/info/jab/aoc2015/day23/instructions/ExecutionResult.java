@@ -0,0 +1,8 @@
+package info.jab.aoc2015.day23.instructions;
+
+/**
+ * Final register values of a program run and the number of original instructions executed.
+ * A fused block counts as the number of instructions it replaces.
+ */
+public record ExecutionResult(long a, long b, long executedInstructions) {
+}
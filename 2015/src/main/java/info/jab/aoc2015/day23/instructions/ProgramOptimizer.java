@@ -0,0 +1,244 @@
+package info.jab.aoc2015.day23.instructions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Optimisation stage between {@link InstructionParser#parse} and execution.
+ *
+ * Registers are converted to indexed primitive slots (a = 0, b = 1) and two peephole fusions are applied:
+ * - every backward jump closes a loop from its target to the jump, the widest one per target is split into
+ *   basic blocks with their tpl/inc runs composed, and runs block to block in a tight primitive loop, whatever
+ *   the order of the instructions or the jump offsets (the Collatz counter of the puzzle is one of them)
+ * - outside loop heads, straight-line runs of tpl/inc on one register, with no jump landing inside, become a
+ *   single affine update r = r * m + c
+ * Fused operations are attached to the first instruction of their block only, so a jump into the middle of a
+ * block still executes the original instructions.
+ */
+public final class ProgramOptimizer {
+
+    private ProgramOptimizer() {
+        // Utility class - prevent instantiation
+    }
+
+    public static CompiledProgram optimize(List<Instruction> instructions) {
+        final int size = instructions.size();
+        final int[] op = new int[size];
+        final int[] register = new int[size];
+        final int[] offset = new int[size];
+
+        for (int pc = 0; pc < size; pc++) {
+            switch (instructions.get(pc)) {
+                case Hlf hlf -> {
+                    op[pc] = CompiledProgram.HLF;
+                    register[pc] = slot(hlf.register());
+                }
+                case Tpl tpl -> {
+                    op[pc] = CompiledProgram.TPL;
+                    register[pc] = slot(tpl.register());
+                }
+                case Inc inc -> {
+                    op[pc] = CompiledProgram.INC;
+                    register[pc] = slot(inc.register());
+                }
+                case Jmp jmp -> {
+                    op[pc] = CompiledProgram.JMP;
+                    offset[pc] = jmp.offset();
+                }
+                case Jie jie -> {
+                    op[pc] = CompiledProgram.JIE;
+                    register[pc] = slot(jie.register());
+                    offset[pc] = jie.offset();
+                }
+                case Jio jio -> {
+                    op[pc] = CompiledProgram.JIO;
+                    register[pc] = slot(jio.register());
+                    offset[pc] = jio.offset();
+                }
+            }
+        }
+
+        final CompiledProgram program = new CompiledProgram(op, register, offset);
+        final boolean[] jumpTarget = jumpTargets(op, offset);
+        fuseLoops(program);
+        for (int pc = 0; pc < size; pc++) {
+            if (!program.isFused(pc)) {
+                fuseAffine(program, pc, jumpTarget);
+            }
+        }
+        return program;
+    }
+
+    private static int slot(String register) {
+        return switch (register) {
+            case "a" -> 0;
+            case "b" -> 1;
+            default -> throw new IllegalArgumentException("Unknown register: " + register);
+        };
+    }
+
+    private static boolean isJump(int op) {
+        return op == CompiledProgram.JMP || op == CompiledProgram.JIE || op == CompiledProgram.JIO;
+    }
+
+    private static boolean[] jumpTargets(int[] op, int[] offset) {
+        final boolean[] targets = new boolean[op.length + 1];
+        for (int pc = 0; pc < op.length; pc++) {
+            if (isJump(op[pc])) {
+                final int target = pc + offset[pc];
+                if (target >= 0 && target <= op.length) {
+                    targets[target] = true;
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * A run of at least two tpl/inc on the same register, where no instruction after the first is a jump target.
+     * The run stops before its coefficients would overflow.
+     */
+    private static void fuseAffine(CompiledProgram program, int start, boolean[] jumpTarget) {
+        final int r = program.register[start];
+        final long[] affine = {1, 0};
+        int end = start;
+        while (end < program.op.length
+                && (end == start || !jumpTarget[end])
+                && program.register[end] == r
+                && (program.op[end] == CompiledProgram.TPL || program.op[end] == CompiledProgram.INC)
+                && compose(affine, program.op[end])) {
+            end++;
+        }
+        if (end - start >= 2) {
+            program.fuseAffine(start, end - start, affine[0], affine[1]);
+        }
+    }
+
+    /**
+     * Append a tpl or inc to the affine update {multiplier, increment}
+     *
+     * @return false, leaving the update untouched, if a coefficient would overflow
+     */
+    private static boolean compose(long[] affine, int op) {
+        try {
+            if (op == CompiledProgram.TPL) {
+                final long multiplier = Math.multiplyExact(affine[0], 3);
+                affine[1] = Math.multiplyExact(affine[1], 3);
+                affine[0] = multiplier;
+            } else {
+                affine[1] = Math.addExact(affine[1], 1);
+            }
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fuse the widest loop closed by a backward jump at every loop head
+     */
+    private static void fuseLoops(CompiledProgram program) {
+        final int size = program.op.length;
+        final int[] tail = new int[size];
+        Arrays.fill(tail, -1);
+        for (int pc = 0; pc < size; pc++) {
+            final int head = pc + program.offset[pc];
+            if (isJump(program.op[pc]) && head >= 0 && head <= pc) {
+                tail[head] = Math.max(tail[head], pc);
+            }
+        }
+        for (int head = 0; head < size; head++) {
+            if (tail[head] >= 0) {
+                program.fuseLoop(head, loop(program, head, tail[head]));
+            }
+        }
+    }
+
+    /**
+     * Split head .. tail into basic blocks: they start at the head, at jump targets inside and after every jump
+     */
+    private static CompiledProgram.Loop loop(CompiledProgram program, int head, int tail) {
+        final int span = tail - head + 1;
+        final boolean[] leader = new boolean[span + 1];
+        leader[0] = true;
+        leader[span] = true;
+        for (int pc = head; pc <= tail; pc++) {
+            if (isJump(program.op[pc])) {
+                leader[pc + 1 - head] = true;
+                final int target = pc + program.offset[pc];
+                if (target >= head && target <= tail) {
+                    leader[target - head] = true;
+                }
+            }
+        }
+        final int[] blockOf = new int[span];
+        int blocks = 0;
+        for (int i = 0; i < span; i++) {
+            if (leader[i]) {
+                blocks++;
+            }
+            blockOf[i] = blocks - 1;
+        }
+
+        final int[] opStart = new int[blocks + 1];
+        final int[] length = new int[blocks];
+        final int[] branch = new int[blocks];
+        final int[] branchRegister = new int[blocks];
+        final int[] takenBlock = new int[blocks];
+        final int[] fallBlock = new int[blocks];
+        final int[] takenExit = new int[blocks];
+        final int[] fallExit = new int[blocks];
+        final List<Update> updates = new ArrayList<>();
+
+        int block = 0;
+        int start = head;
+        for (int pc = head; pc <= tail; pc++) {
+            final int op = program.op[pc];
+            final int r = program.register[pc];
+            if (op == CompiledProgram.HLF) {
+                updates.add(new Update(r, true, null));
+            } else if (op == CompiledProgram.TPL || op == CompiledProgram.INC) {
+                final Update last = updates.size() > opStart[block] ? updates.getLast() : null;
+                if (last == null || last.halve() || last.register() != r || !compose(last.affine(), op)) {
+                    final Update update = new Update(r, false, new long[] {1, 0});
+                    compose(update.affine(), op);
+                    updates.add(update);
+                }
+            }
+            if (pc == tail || leader[pc + 1 - head]) {
+                length[block] = pc - start + 1;
+                branch[block] = isJump(op) ? op : -1;
+                branchRegister[block] = r;
+                final int fall = pc + 1;
+                final int taken = isJump(op) ? pc + program.offset[pc] : fall;
+                takenBlock[block] = taken >= head && taken <= tail ? blockOf[taken - head] : -1;
+                takenExit[block] = taken;
+                fallBlock[block] = fall <= tail ? blockOf[fall - head] : -1;
+                fallExit[block] = fall;
+                opStart[++block] = updates.size();
+                start = pc + 1;
+            }
+        }
+
+        final int ops = updates.size();
+        final int[] opRegister = new int[ops];
+        final boolean[] opHalve = new boolean[ops];
+        final long[] opMultiplier = new long[ops];
+        final long[] opIncrement = new long[ops];
+        for (int i = 0; i < ops; i++) {
+            final Update update = updates.get(i);
+            opRegister[i] = update.register();
+            opHalve[i] = update.halve();
+            if (!update.halve()) {
+                opMultiplier[i] = update.affine()[0];
+                opIncrement[i] = update.affine()[1];
+            }
+        }
+        return new CompiledProgram.Loop(opStart, length, opRegister, opHalve, opMultiplier, opIncrement,
+                branch, branchRegister, takenBlock, fallBlock, takenExit, fallExit);
+    }
+
+    // hlf, or an affine update {multiplier, increment} on one register
+    private record Update(int register, boolean halve, long[] affine) {}
+}
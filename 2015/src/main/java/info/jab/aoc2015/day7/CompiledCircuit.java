@@ -0,0 +1,271 @@
+package info.jab.aoc2015.day7;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Circuit compiled once into a DAG over interned wire ids.
+ *
+ * Every wire is driven by one gate, gates are sorted topologically into flat arrays and evaluated in a
+ * single pass into a char[] of 16 bit signals. Operands are wire ids, or the bitwise complement of a
+ * literal, decided once at compile time.
+ *
+ * A wire can be overridden with a fixed signal. Only the gates downstream of it are evaluated again,
+ * in topological order, and the propagation stops at gates whose signal does not change.
+ */
+public final class CompiledCircuit {
+
+    private static final int ASSIGN = 0;
+    private static final int NOT = 1;
+    private static final int AND = 2;
+    private static final int OR = 3;
+    private static final int LSHIFT = 4;
+    private static final int RSHIFT = 5;
+
+    private final Map<String, Integer> ids;
+    // Gates in topological order
+    private final int[] op;
+    private final int[] left;
+    private final int[] right;
+    private final int[] out;
+    // Gates reading wire w: readers[readerStart[w] .. readerStart[w + 1]), as topological positions
+    private final int[] readerStart;
+    private final int[] readers;
+
+    private final char[] signals;
+    private final boolean[] overridden;
+
+    private CompiledCircuit(Map<String, Integer> ids, int[] op, int[] left, int[] right, int[] out) {
+        this.ids = ids;
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.out = out;
+
+        int wires = ids.size();
+        this.readerStart = new int[wires + 1];
+        for (int g = 0; g < op.length; g++) {
+            forEachInput(g, wire -> readerStart[wire + 1]++);
+        }
+        for (int w = 0; w < wires; w++) {
+            readerStart[w + 1] += readerStart[w];
+        }
+        this.readers = new int[readerStart[wires]];
+        int[] fill = Arrays.copyOf(readerStart, wires);
+        for (int g = 0; g < op.length; g++) {
+            final int gate = g;
+            forEachInput(g, wire -> readers[fill[wire]++] = gate);
+        }
+
+        this.signals = new char[wires];
+        this.overridden = new boolean[wires];
+        for (int g = 0; g < op.length; g++) {
+            signals[out[g]] = evaluate(g);
+        }
+    }
+
+    /**
+     * Compile and evaluate the instructions
+     *
+     * @throws IllegalStateException if a wire has no driver or the wires form a cycle
+     */
+    public static CompiledCircuit compile(List<Instruction> instructions) {
+        Map<String, Integer> ids = new HashMap<>();
+        int n = instructions.size();
+        int[] op = new int[n];
+        int[] left = new int[n];
+        int[] right = new int[n];
+        int[] out = new int[n];
+        for (int g = 0; g < n; g++) {
+            Instruction instruction = instructions.get(g);
+            op[g] = opcode(instruction.operation());
+            left[g] = operand(instruction.input1(), ids);
+            right[g] = instruction.input2() == null ? ~0 : operand(instruction.input2(), ids);
+            out[g] = wire(instruction.output(), ids);
+        }
+
+        int[] driver = new int[ids.size()];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < n; g++) {
+            if (driver[out[g]] >= 0) {
+                throw new IllegalStateException("Wire driven twice: " + instructions.get(g).output());
+            }
+            driver[out[g]] = g;
+        }
+
+        // Kahn's algorithm over the gates
+        int[] pending = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int g = 0; g < n; g++) {
+            dependents.add(new ArrayList<>(2));
+        }
+        for (int g = 0; g < n; g++) {
+            for (int operand : new int[] {left[g], right[g]}) {
+                if (operand >= 0) {
+                    if (driver[operand] < 0) {
+                        throw new IllegalStateException("Wire without signal: " + instructions.get(g));
+                    }
+                    pending[g]++;
+                    dependents.get(driver[operand]).add(g);
+                }
+            }
+        }
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int g = 0; g < n; g++) {
+            if (pending[g] == 0) {
+                order[tail++] = g;
+            }
+        }
+        while (head < tail) {
+            for (int dependent : dependents.get(order[head++])) {
+                if (--pending[dependent] == 0) {
+                    order[tail++] = dependent;
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalStateException("Circular dependency detected");
+        }
+
+        return new CompiledCircuit(ids,
+            permute(op, order), permute(left, order), permute(right, order), permute(out, order));
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] sorted = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return sorted;
+    }
+
+    private static int opcode(String operation) {
+        return switch (operation) {
+            case "->" -> ASSIGN;
+            case "NOT" -> NOT;
+            case "AND" -> AND;
+            case "OR" -> OR;
+            case "LSHIFT" -> LSHIFT;
+            case "RSHIFT" -> RSHIFT;
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    private static int operand(String token, Map<String, Integer> ids) {
+        return Character.isDigit(token.charAt(0)) ? ~(Integer.parseInt(token) & 0xFFFF) : wire(token, ids);
+    }
+
+    private static int wire(String name, Map<String, Integer> ids) {
+        return ids.computeIfAbsent(name, key -> ids.size());
+    }
+
+    private void forEachInput(int gate, IntConsumer action) {
+        if (left[gate] >= 0) {
+            action.accept(left[gate]);
+        }
+        if (right[gate] >= 0 && right[gate] != left[gate]) {
+            action.accept(right[gate]);
+        }
+    }
+
+    private int value(int operand) {
+        return operand >= 0 ? signals[operand] : ~operand;
+    }
+
+    private char evaluate(int gate) {
+        int a = value(left[gate]);
+        return (char) switch (op[gate]) {
+            case ASSIGN -> a;
+            case NOT -> ~a;
+            case AND -> a & value(right[gate]);
+            case OR -> a | value(right[gate]);
+            case LSHIFT -> a << value(right[gate]);
+            default -> a >>> value(right[gate]);
+        };
+    }
+
+    /**
+     * The signal of a wire
+     *
+     * @throws IllegalArgumentException if the circuit has no such wire
+     */
+    public int signal(String wireName) {
+        return signals[id(wireName)];
+    }
+
+    /**
+     * Fix the signal of a wire, ignoring its driver, and update the wires downstream
+     *
+     * @return The number of gates evaluated again
+     */
+    public int override(String wireName, int signal) {
+        int wire = id(wireName);
+        overridden[wire] = true;
+        return update(wire, (char) signal);
+    }
+
+    /**
+     * Give a wire back to its driver and update the wires downstream
+     *
+     * @return The number of gates evaluated again
+     */
+    public int clearOverride(String wireName) {
+        int wire = id(wireName);
+        if (!overridden[wire]) {
+            return 0;
+        }
+        overridden[wire] = false;
+        for (int g = 0; g < out.length; g++) {
+            if (out[g] == wire) {
+                return update(wire, evaluate(g)) + 1;
+            }
+        }
+        throw new IllegalStateException("Wire without driver: " + wireName);
+    }
+
+    private int update(int wire, char signal) {
+        if (signals[wire] == signal) {
+            return 0;
+        }
+        signals[wire] = signal;
+
+        // Readers always come later in topological order, so the pending gates are visited in order
+        BitSet pending = new BitSet(op.length);
+        markReaders(wire, pending);
+        int evaluated = 0;
+        for (int g = pending.nextSetBit(0); g >= 0; g = pending.nextSetBit(g + 1)) {
+            int output = out[g];
+            if (overridden[output]) {
+                continue;
+            }
+            evaluated++;
+            char value = evaluate(g);
+            if (value != signals[output]) {
+                signals[output] = value;
+                markReaders(output, pending);
+            }
+        }
+        return evaluated;
+    }
+
+    private void markReaders(int wire, BitSet pending) {
+        for (int i = readerStart[wire]; i < readerStart[wire + 1]; i++) {
+            pending.set(readers[i]);
+        }
+    }
+
+    private int id(String wireName) {
+        Integer wire = ids.get(wireName);
+        if (wire == null) {
+            throw new IllegalArgumentException("Unknown wire: " + wireName);
+        }
+        return wire;
+    }
+}
@@ -2,6 +2,9 @@ package info.jab.aoc2015.day10;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 class Day10Test {
@@ -32,4 +35,35 @@ class Day10Test {
         then(result).isEqualTo(6989950);
     }
 
+    @Test
+    void should_decay_into_the_92_common_elements() {
+        //Given
+        var decay = AudioactiveDecay.of("1321131112");
+
+        //When
+        var elements = decay.elements();
+        var length = decay.length(150);
+
+        //Then
+        then(elements).isEqualTo(92);
+        then(decay.length(150L, 1_000_000_007L)).isEqualTo(length % 1_000_000_007L);
+    }
+
+    @Test
+    void should_match_the_generator_for_other_seeds() {
+        for (String seed : List.of("1", "3", "22", "1234", "9", "3333", "111111111111", "2017")) {
+            //Given
+            var decay = AudioactiveDecay.of(seed);
+            byte[] sequence = seed.getBytes(StandardCharsets.US_ASCII);
+
+            for (int iterations = 0; iterations <= 40; iterations++) {
+                //When
+                var length = decay.length(iterations);
+
+                //Then
+                then(length).as("%s after %d iterations", seed, iterations).isEqualTo(sequence.length);
+                sequence = AudioactiveDecay.next(sequence);
+            }
+        }
+    }
 }
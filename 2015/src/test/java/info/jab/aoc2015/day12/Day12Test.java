@@ -2,6 +2,10 @@ package info.jab.aoc2015.day12;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.jupiter.api.Test;
 
 class Day12Test {
@@ -32,4 +36,16 @@ class Day12Test {
         then(result).isEqualTo(65402);
     }
 
+    @Test
+    void should_stream_both_sums_in_one_pass() throws IOException {
+        //Given
+        var json = "[1,{\"c\":\"red\",\"b\":[2,{\"d\":3}]},\"red\",{\"e\":[4]}]";
+
+        //When
+        var result = new JSONAbacus().sums(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        //Then
+        then(result.all()).isEqualTo(10L);
+        then(result.withoutRed()).isEqualTo(5L);
+    }
 }
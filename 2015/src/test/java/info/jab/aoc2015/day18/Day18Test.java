@@ -32,6 +32,32 @@ class Day18Test {
         then(result).isEqualTo(17);
     }
 
+    @Test
+    void should_solve_day18_sample_with_bit_parallel_grid() {
+        //Given
+        String fileName = "/day18/day18-sample.txt";
+
+        //When
+        var lightGrid = new LightGrid2();
+        var result = lightGrid.solvePartOneWithSteps(fileName, 4);
+
+        //Then
+        then(result).isEqualTo(4);
+    }
+
+    @Test
+    void should_solve_day18_sample_part2_with_bit_parallel_grid() {
+        //Given
+        String fileName = "/day18/day18-sample.txt";
+
+        //When
+        var lightGrid = new LightGrid2();
+        var result = lightGrid.solvePartTwoWithSteps(fileName, 5);
+
+        //Then
+        then(result).isEqualTo(17);
+    }
+
     @Test
     void should_solve_day18_part1() {
         //Given
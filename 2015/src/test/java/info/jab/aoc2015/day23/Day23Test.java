@@ -1,7 +1,13 @@
 package info.jab.aoc2015.day23;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import info.jab.aoc2015.day23.instructions.InstructionParser;
+import info.jab.aoc2015.day23.instructions.ProgramOptimizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class Day23Test {
@@ -32,4 +38,72 @@ class Day23Test {
         then(result).isEqualTo(160);
     }
 
-}
\ No newline at end of file
+    @Test
+    void should_match_interpreter_in_fast_mode() {
+        //Given
+        String fileName = "/day23/day23-input.txt";
+
+        //When
+        var interpreted = new TuringComputer().run(fileName, 1, 0);
+        var fast = TuringComputer.fast(1_000_000).run(fileName, 1, 0);
+
+        //Then
+        then(fast).isEqualTo(interpreted);
+        then(fast.b()).isEqualTo(160);
+    }
+
+    @Test
+    void should_fuse_collatz_cycle_for_large_seeds() {
+        //Given
+        var program = ProgramOptimizer.optimize(InstructionParser.parse(List.of(
+                "jio a, +8", "inc b", "jie a, +4", "tpl a", "inc a", "jmp +2", "hlf a", "jmp -7")));
+
+        //When
+        var result = program.run(837_799, 0, Long.MAX_VALUE);
+
+        //Then
+        then(program.fusedBlocks()).isEqualTo(2); // the loop and its tpl/inc pair
+        then(result.executedInstructions()).isEqualTo(3011);
+        then(result.a()).isEqualTo(1);
+        then(result.b()).isEqualTo(524);
+    }
+
+    @Test
+    void should_fuse_loops_whatever_their_layout() {
+        //Given
+        var program = ProgramOptimizer.optimize(InstructionParser.parse(List.of(
+                "jio a, +9", "jie a, +5", "tpl a", "inc a", "inc b", "jmp -5", "hlf a", "inc b", "jmp -8")));
+
+        //When
+        var result = program.run(837_799, 0, Long.MAX_VALUE);
+
+        //Then
+        then(program.fusedBlocks()).isEqualTo(2);
+        then(result.executedInstructions()).isEqualTo(2816);
+        then(result.a()).isEqualTo(1);
+        then(result.b()).isEqualTo(524);
+    }
+
+    @Test
+    void should_fail_instead_of_wrapping_fused_updates() {
+        //Given
+        var lines = new ArrayList<String>(Collections.nCopies(45, "tpl a"));
+        lines.add("inc a");
+        var program = ProgramOptimizer.optimize(InstructionParser.parse(lines));
+
+        //When / Then
+        then(program.run(0, 0, 1_000).a()).isEqualTo(1);
+        assertThatThrownBy(() -> program.run(1, 0, 1_000)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void should_stop_when_instruction_budget_is_exceeded() {
+        //Given
+        String fileName = "/day23/day23-input.txt";
+
+        //When / Then
+        assertThatThrownBy(() -> TuringComputer.fast(100).run(fileName, 1, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("100");
+    }
+}
@@ -0,0 +1,41 @@
+package info.jab.aoc2015.day4;
+
+import com.putoet.security.MD5Engine;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+public class AdventCoinMinerBenchmark { //NOSONAR java:S5786 - JMH @State annotation requires public class
+
+    @State(Scope.Thread)
+    public static class St {
+        @Param({"5", "6"})
+        int zeros;
+
+        String secretKey = "abcdef";
+    }
+
+    @Benchmark
+    public long messageDigest(St st) throws NoSuchAlgorithmException {
+        String prefix = "0".repeat(st.zeros);
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        for (long number = 1; ; number++) {
+            md.update((st.secretKey + number).getBytes());
+            if (HexFormat.of().formatHex(md.digest()).startsWith(prefix)) {
+                return number;
+            }
+        }
+    }
+
+    @Benchmark
+    public long md5Engine(St st) {
+        return MD5Engine.findFirst(st.secretKey, 1, Long.MAX_VALUE, MD5Engine.leadingZeroNibbles(st.zeros))
+                .orElseThrow();
+    }
+}
@@ -2,6 +2,8 @@ package info.jab.aoc2015.day7;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 class Day7Test {
@@ -31,4 +33,29 @@ class Day7Test {
         //Then
         then(result).isEqualTo(14710);
     }
+
+    @Test
+    void should_evaluate_the_sample_and_update_only_the_downstream_cone() {
+        //Given
+        var circuit = CompiledCircuit.compile(List.of(
+                "123 -> x", "456 -> y", "x AND y -> d", "x OR y -> e",
+                "x LSHIFT 2 -> f", "y RSHIFT 2 -> g", "NOT x -> h", "NOT y -> i").stream()
+            .map(Instruction::parse)
+            .toList());
+
+        //When
+        var evaluated = circuit.override("y", 0);
+
+        //Then
+        then(evaluated).isEqualTo(4);
+        then(circuit.signal("x")).isEqualTo(123);
+        then(circuit.signal("h")).isEqualTo(65412);
+        then(circuit.signal("d")).isZero();
+        then(circuit.signal("i")).isEqualTo(65535);
+
+        circuit.clearOverride("y");
+        then(circuit.signal("d")).isEqualTo(72);
+        then(circuit.signal("e")).isEqualTo(507);
+        then(circuit.signal("g")).isEqualTo(114);
+    }
 }
@@ -0,0 +1,317 @@
+package info.jab.aoc2016.assembunny;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled Assembunny program shared by the Day 12 and Day 23 interpreters.
+ * Supports instructions: cpy, inc, dec, jnz, tgl
+ *
+ * The source is decoded once into a flat int[] (opcode plus two operands of mode and value per
+ * instruction) and executed with int[] registers in a single switch loop, so no String, Map or
+ * instruction object is touched while running. tgl patches the decoded array in place.
+ *
+ * On top of that the classic loops are detected and fused into single operations:
+ * - add: inc x / dec y / jnz y -2 (in either order) becomes x += y, y = 0
+ * - mul: cpy s c / add loop of c into a / dec d / jnz d -5 becomes a += s * d, c = 0, d = 0
+ * A fused operation only runs when the program counter reaches the first instruction of its
+ * block, jumps into the middle of a block run the original instructions. Fusion is recomputed
+ * after every tgl, as it may break or create a pattern. All arithmetic is 32 bit, so the fused
+ * result equals the looped result even when the loop counter starts at zero or negative.
+ */
+public final class AssembunnyProgram {
+
+    public static final int REGISTERS = 4;
+
+    private static final int CPY = 0;
+    private static final int INC = 1;
+    private static final int DEC = 2;
+    private static final int JNZ = 3;
+    private static final int TGL = 4;
+    private static final int NOP = 5;
+
+    private static final int NO_FUSION = 0;
+    private static final int ADD = 1;
+    private static final int MUL = 2;
+
+    private static final int NONE = 0;
+    private static final int REGISTER = 1;
+    private static final int LITERAL = 2;
+
+    // Layout of one decoded instruction: opcode, mode1, value1, mode2, value2
+    private static final int WIDTH = 5;
+
+    private final int size;
+    private final int[] code;
+    private final int[] fusion;
+    private final int[] fusedTarget;
+    private final int[] fusedMode;
+    private final int[] fusedSource;
+    private final int[] fusedCounter;
+    private final int[] fusedOuter;
+    private long steps;
+
+    private AssembunnyProgram(int[] code) {
+        this.size = code.length / WIDTH;
+        this.code = code;
+        this.fusion = new int[size];
+        this.fusedTarget = new int[size];
+        this.fusedMode = new int[size];
+        this.fusedSource = new int[size];
+        this.fusedCounter = new int[size];
+        this.fusedOuter = new int[size];
+        fuse();
+    }
+
+    /**
+     * Decode the program source
+     *
+     * @param lines The program, one instruction per line
+     * @return The compiled program
+     * @throws IllegalArgumentException for an unknown instruction
+     */
+    public static AssembunnyProgram parse(List<String> lines) {
+        final int[] code = new int[lines.size() * WIDTH];
+        for (int pc = 0; pc < lines.size(); pc++) {
+            final String line = lines.get(pc).trim();
+            final int base = pc * WIDTH;
+            if (line.isEmpty()) {
+                code[base] = NOP;
+                continue;
+            }
+
+            final String[] parts = line.split("\\s+");
+            code[base] = switch (parts[0]) {
+                case "cpy" -> CPY;
+                case "inc" -> INC;
+                case "dec" -> DEC;
+                case "jnz" -> JNZ;
+                case "tgl" -> TGL;
+                default -> throw new IllegalArgumentException("Unknown instruction: " + parts[0]);
+            };
+            if (parts.length > 1) {
+                decodeOperand(parts[1], code, base + 1);
+            }
+            if (parts.length > 2) {
+                decodeOperand(parts[2], code, base + 3);
+            }
+        }
+        return new AssembunnyProgram(code);
+    }
+
+    private static void decodeOperand(String operand, int[] code, int index) {
+        if (operand.length() == 1 && operand.charAt(0) >= 'a' && operand.charAt(0) <= 'd') {
+            code[index] = REGISTER;
+            code[index + 1] = operand.charAt(0) - 'a';
+        } else {
+            code[index] = LITERAL;
+            code[index + 1] = Integer.parseInt(operand);
+        }
+    }
+
+    /**
+     * A copy of this program with its own decoded instructions, as tgl modifies the program
+     *
+     * @return An independent copy
+     */
+    public AssembunnyProgram copy() {
+        return new AssembunnyProgram(code.clone());
+    }
+
+    /**
+     * Number of instructions executed by the last runs, a fused operation counts as one
+     *
+     * @return The executed step count
+     */
+    public long steps() {
+        return steps;
+    }
+
+    /**
+     * Number of fused operations currently detected in the program
+     *
+     * @return The fused operation count
+     */
+    public int fusedOperations() {
+        int count = 0;
+        for (int pc = 0; pc < size; pc++) {
+            if (fusion[pc] != NO_FUSION) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run the program until the program counter leaves it.
+     * The registers are updated in place and tgl may modify this program, use copy() to keep the original.
+     *
+     * @param registers The a, b, c and d registers
+     * @return The registers
+     */
+    public int[] run(int[] registers) {
+        if (registers.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + registers.length);
+        }
+
+        final int[] r = registers;
+        final int[] c = code;
+        long executed = 0;
+        int pc = 0;
+        while (pc >= 0 && pc < size) {
+            executed++;
+            switch (fusion[pc]) {
+                case ADD -> {
+                    r[fusedTarget[pc]] += r[fusedCounter[pc]];
+                    r[fusedCounter[pc]] = 0;
+                    pc += 3;
+                    continue;
+                }
+                case MUL -> {
+                    final int source = fusedMode[pc] == REGISTER ? r[fusedSource[pc]] : fusedSource[pc];
+                    r[fusedTarget[pc]] += source * r[fusedOuter[pc]];
+                    r[fusedCounter[pc]] = 0;
+                    r[fusedOuter[pc]] = 0;
+                    pc += 6;
+                    continue;
+                }
+                default -> {
+                    // No fused operation at this address
+                }
+            }
+
+            final int base = pc * WIDTH;
+            switch (c[base]) {
+                case CPY -> {
+                    if (c[base + 3] == REGISTER) {
+                        r[c[base + 4]] = c[base + 1] == REGISTER ? r[c[base + 2]] : c[base + 2];
+                    }
+                    pc++;
+                }
+                case INC -> {
+                    if (c[base + 1] == REGISTER) {
+                        r[c[base + 2]]++;
+                    }
+                    pc++;
+                }
+                case DEC -> {
+                    if (c[base + 1] == REGISTER) {
+                        r[c[base + 2]]--;
+                    }
+                    pc++;
+                }
+                case JNZ -> {
+                    final int value = c[base + 1] == REGISTER ? r[c[base + 2]] : c[base + 2];
+                    final int offset = c[base + 3] == REGISTER ? r[c[base + 4]] : c[base + 4];
+                    pc += value != 0 ? offset : 1;
+                }
+                case TGL -> {
+                    final int target = pc + (c[base + 1] == REGISTER ? r[c[base + 2]] : c[base + 2]);
+                    if (target >= 0 && target < size) {
+                        toggle(target);
+                        fuse();
+                    }
+                    pc++;
+                }
+                default -> pc++;
+            }
+        }
+        steps += executed;
+        return r;
+    }
+
+    private void toggle(int pc) {
+        final int base = pc * WIDTH;
+        final boolean twoOperands = code[base + 3] != NONE;
+        code[base] = switch (code[base]) {
+            case NOP -> NOP;
+            case INC -> DEC;
+            case JNZ -> CPY;
+            default -> twoOperands ? JNZ : INC;
+        };
+    }
+
+    private void fuse() {
+        Arrays.fill(fusion, NO_FUSION);
+        for (int pc = 0; pc < size; pc++) {
+            if (!fuseMul(pc)) {
+                fuseAdd(pc);
+            }
+        }
+    }
+
+    /**
+     * inc x / dec y / jnz y -2, or dec y / inc x / jnz y -2
+     */
+    private boolean fuseAdd(int pc) {
+        if (pc + 3 > size || !isJump(pc + 2, -2)) {
+            return false;
+        }
+
+        final int counter = register(pc + 2, 1);
+        final int target;
+        if (is(pc, INC) && is(pc + 1, DEC) && register(pc + 1, 1) == counter) {
+            target = register(pc, 1);
+        } else if (is(pc, DEC) && is(pc + 1, INC) && register(pc, 1) == counter) {
+            target = register(pc + 1, 1);
+        } else {
+            return false;
+        }
+        if (counter < 0 || target < 0 || target == counter) {
+            return false;
+        }
+
+        fusion[pc] = ADD;
+        fusedTarget[pc] = target;
+        fusedCounter[pc] = counter;
+        return true;
+    }
+
+    /**
+     * cpy s c / add loop of c into a / dec d / jnz d -5
+     */
+    private boolean fuseMul(int pc) {
+        if (pc + 6 > size || !is(pc, CPY) || !fuseAdd(pc + 1)) {
+            return false;
+        }
+        fusion[pc + 1] = NO_FUSION;
+
+        final int target = fusedTarget[pc + 1];
+        final int counter = fusedCounter[pc + 1];
+        final int outer = register(pc + 4, 1);
+        final int base = pc * WIDTH;
+        if (register(pc, 2) != counter || !is(pc + 4, DEC) || !isJump(pc + 5, -5)
+                || register(pc + 5, 1) != outer || outer < 0 || outer == target || outer == counter) {
+            return false;
+        }
+        if (code[base + 1] == REGISTER && (code[base + 2] == target || code[base + 2] == counter
+                || code[base + 2] == outer)) {
+            return false;
+        }
+
+        fusion[pc] = MUL;
+        fusedTarget[pc] = target;
+        fusedCounter[pc] = counter;
+        fusedOuter[pc] = outer;
+        fusedMode[pc] = code[base + 1];
+        fusedSource[pc] = code[base + 2];
+        return true;
+    }
+
+    private boolean is(int pc, int opcode) {
+        return code[pc * WIDTH] == opcode;
+    }
+
+    private boolean isJump(int pc, int offset) {
+        final int base = pc * WIDTH;
+        return code[base] == JNZ && code[base + 1] == REGISTER && code[base + 3] == LITERAL && code[base + 4] == offset;
+    }
+
+    /**
+     * The register index of the given operand (1 or 2), or -1 if it is not a register
+     */
+    private int register(int pc, int operand) {
+        final int index = pc * WIDTH + 2 * operand - 1;
+        return code[index] == REGISTER ? code[index + 1] : -1;
+    }
+}
@@ -0,0 +1,216 @@
+package info.jab.aoc2016.day11;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.Arrays;
+
+/**
+ * Facility states packed into a single long and the shortest path search over them.
+ *
+ * Bits 0-1 hold the elevator floor, then every element takes 4 bits: generator floor times 4 plus
+ * microchip floor. Elements are interchangeable, so the pairs are kept sorted and every symmetric state
+ * has the same encoding. That leaves room for 15 pairs.
+ */
+final class PackedState {
+
+    static final int FLOORS = 4;
+    static final int MAX_PAIRS = 15;
+
+    private static final int TOP = FLOORS - 1;
+    private static final int TOP_PAIR = TOP << 2 | TOP;
+
+    private PackedState() {
+        // Utility class - prevent instantiation
+    }
+
+    static long encode(int elevator, int[] generators, int[] microchips) {
+        int pairs = generators.length;
+        if (pairs > MAX_PAIRS) {
+            throw new IllegalArgumentException("At most " + MAX_PAIRS + " element pairs fit in a state: " + pairs);
+        }
+        int[] values = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            values[i] = generators[i] << 2 | microchips[i];
+        }
+        return pack(elevator, values);
+    }
+
+    /**
+     * The state with every item and the elevator on the top floor
+     */
+    static long goal(int pairs) {
+        int[] values = new int[pairs];
+        Arrays.fill(values, TOP_PAIR);
+        return pack(TOP, values);
+    }
+
+    // Sorts values in place, counting sort over the 16 possible pairs
+    private static long pack(int elevator, int[] values) {
+        int[] counts = new int[16];
+        for (int value : values) {
+            counts[value]++;
+        }
+        long state = elevator;
+        int shift = 2;
+        for (int value = 0; value < counts.length; value++) {
+            for (int c = 0; c < counts[value]; c++) {
+                state |= (long) value << shift;
+                shift += 4;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * The fewest elevator moves between two states
+     *
+     * @param start The packed start state
+     * @param goal The packed goal state
+     * @param pairs The number of element pairs in the states
+     * @param bidirectional Search from both ends, alternating on the smaller frontier
+     * @return The number of moves, or -1 if the goal cannot be reached
+     */
+    static int minimumSteps(long start, long goal, int pairs, boolean bidirectional) {
+        if (start == goal) {
+            return 0;
+        }
+        Search forward = new Search(start, pairs, true);
+        Search backward = new Search(goal, pairs, false);
+        if (!bidirectional) {
+            while (!forward.frontier.isEmpty()) {
+                if (forward.expand(next -> next == goal)) {
+                    return forward.depth;
+                }
+            }
+            return -1;
+        }
+        // Moves are reversible, so the goal side uses the same moves, without the pruning meant for the way up
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            boolean forwardTurn = forward.frontier.size() <= backward.frontier.size();
+            Search side = forwardTurn ? forward : backward;
+            Search other = forwardTurn ? backward : forward;
+            if (side.expand(other.visited::contains)) {
+                return side.depth + other.depth;
+            }
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    private interface Meeting {
+        boolean test(long state);
+    }
+
+    /**
+     * One breadth first search, expanded a layer at a time
+     */
+    private static final class Search {
+        private final int pairs;
+        private final boolean forward;
+        private final LongOpenHashSet visited = new LongOpenHashSet();
+        private LongArrayList frontier = new LongArrayList();
+        private int depth;
+
+        // Decoding buffers
+        private final int[] generators;
+        private final int[] microchips;
+        private final int[] items;
+
+        Search(long root, int pairs, boolean forward) {
+            this.pairs = pairs;
+            this.forward = forward;
+            this.generators = new int[pairs];
+            this.microchips = new int[pairs];
+            this.items = new int[2 * pairs];
+            visited.add(root);
+            frontier.add(root);
+        }
+
+        /**
+         * Visit the next layer
+         *
+         * @return true as soon as a new state passes the meeting test
+         */
+        boolean expand(Meeting meeting) {
+            LongArrayList next = new LongArrayList();
+            depth++;
+            for (int s = 0; s < frontier.size(); s++) {
+                long state = frontier.getLong(s);
+                int elevator = (int) (state & 3);
+                int belowItems = 0;
+                int count = 0;
+                for (int i = 0; i < pairs; i++) {
+                    int value = (int) (state >>> (2 + 4 * i)) & 0xF;
+                    generators[i] = value >>> 2;
+                    microchips[i] = value & 3;
+                    if (generators[i] == elevator) {
+                        items[count++] = 2 * i;
+                    }
+                    if (microchips[i] == elevator) {
+                        items[count++] = 2 * i + 1;
+                    }
+                    if (generators[i] < elevator) {
+                        belowItems++;
+                    }
+                    if (microchips[i] < elevator) {
+                        belowItems++;
+                    }
+                }
+
+                for (int direction = -1; direction <= 1; direction += 2) {
+                    int target = elevator + direction;
+                    // Taking items down to empty floors only means bringing them back up
+                    if (target < 0 || target > TOP || (forward && direction < 0 && belowItems == 0)) {
+                        continue;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        for (int j = i; j < count; j++) {
+                            move(items[i], target);
+                            if (j != i) {
+                                move(items[j], target);
+                            }
+                            if (isSafe()) {
+                                long successor = encode(target, generators, microchips);
+                                if (visited.add(successor)) {
+                                    if (meeting.test(successor)) {
+                                        return true;
+                                    }
+                                    next.add(successor);
+                                }
+                            }
+                            move(items[i], elevator);
+                            if (j != i) {
+                                move(items[j], elevator);
+                            }
+                        }
+                    }
+                }
+            }
+            frontier = next;
+            return false;
+        }
+
+        private void move(int item, int floor) {
+            if ((item & 1) == 0) {
+                generators[item >>> 1] = floor;
+            } else {
+                microchips[item >>> 1] = floor;
+            }
+        }
+
+        // A microchip is fried on a floor with another generator unless its own generator is there
+        private boolean isSafe() {
+            int generatorFloors = 0;
+            for (int i = 0; i < pairs; i++) {
+                generatorFloors |= 1 << generators[i];
+            }
+            for (int i = 0; i < pairs; i++) {
+                if (microchips[i] != generators[i] && (generatorFloors & 1 << microchips[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package info.jab.aoc2016.day11;
 
-import java.util.*;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -113,89 +113,8 @@ public class RTGFacility implements Solver<Integer> {
     }
 
     private int findMinimumSteps(RTGState initialState) {
-        // Use PriorityQueue for A* search with heuristic
-        PriorityQueue<StateStep> queue = new PriorityQueue<>(
-            Comparator.comparingInt(step -> step.steps() + heuristic(step.state()))
-        );
-        Set<String> visited = new HashSet<>();
-
-        queue.offer(new StateStep(initialState, 0));
-        visited.add(initialState.getStateKey());
-
-        while (!queue.isEmpty()) {
-            StateStep current = queue.poll();
-
-            if (current.state().isComplete()) {
-                return current.steps();
-            }
-
-            // Generate all possible next states
-            for (RTGState nextState : generateNextStates(current.state())) {
-                String key = nextState.getStateKey();
-                if (!visited.contains(key)) {
-                    visited.add(key);
-                    queue.offer(new StateStep(nextState, current.steps() + 1));
-                }
-            }
-        }
-
-        return -1; // Should not happen
-    }
-
-    /**
-     * Heuristic function for A* search.
-     * Estimates minimum steps needed: items not on top floor need to be moved up.
-     * Since we can move 2 items at a time, we need at least (items not on top) / 2 moves.
-     * Each move requires going up and potentially back down, so we multiply by 2.
-     * This is an admissible heuristic (never overestimates).
-     */
-    private int heuristic(RTGState state) {
-        int itemsNotOnTop = 0;
-        for (int floor = 0; floor < 3; floor++) {
-            itemsNotOnTop += state.getItemsOnFloor(floor).size();
-        }
-        // Minimum steps: need to move all items up, can move 2 at a time
-        // Each pair needs at least 1 move, but we also need to account for elevator movement
-        // Conservative estimate: items / 2 (rounded up) for minimum moves needed
-        return (itemsNotOnTop + 1) / 2;
-    }
-
-    private List<RTGState> generateNextStates(RTGState state) {
-        List<RTGState> nextStates = new ArrayList<>();
-        int currentFloor = state.getElevatorFloor();
-
-        // Get all items on current floor
-        List<Item> items = state.getItemsOnFloor(currentFloor);
-
-        // Try moving 1 or 2 items up or down
-        for (int direction : new int[]{-1, 1}) {
-            int targetFloor = currentFloor + direction;
-            if (targetFloor < 0 || targetFloor >= 4) continue;
-
-            // Try moving 1 item
-            for (Item item : items) {
-                RTGState newState = state.moveItem(currentFloor, targetFloor, item)
-                        .withElevatorFloor(targetFloor);
-
-                if (newState.isValidState()) {
-                    nextStates.add(newState);
-                }
-            }
-
-            // Try moving 2 items
-            for (int i = 0; i < items.size(); i++) {
-                for (int j = i + 1; j < items.size(); j++) {
-                    RTGState newState = state.moveItem(currentFloor, targetFloor, items.get(i))
-                            .moveItem(currentFloor, targetFloor, items.get(j))
-                            .withElevatorFloor(targetFloor);
-
-                    if (newState.isValidState()) {
-                        nextStates.add(newState);
-                    }
-                }
-            }
-        }
-
-        return nextStates;
+        // Breadth first search from both ends over canonical packed states
+        int pairs = initialState.pairs();
+        return PackedState.minimumSteps(initialState.encode(), PackedState.goal(pairs), pairs, true);
     }
 }
@@ -1,77 +1,62 @@
 package info.jab.aoc2016.day11;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Represents the state of the RTG facility.
+ *
+ * Only the floor of every generator and microchip matters, kept per element in two int arrays.
+ * The search itself works on the packed encoding returned by {@link #encode()}.
  */
 public final class RTGState {
+    private static final int UNPLACED = -1;
+
     private final int elevatorFloor;
-    private final Map<Integer, Set<Item>> floors;
+    private final List<String> elements;
+    private final int[] generatorFloors;
+    private final int[] microchipFloors;
 
     public RTGState() {
-        this(0, createEmptyFloors());
+        this(0, List.of(), new int[0], new int[0]);
     }
 
-    private RTGState(final int elevatorFloor, final Map<Integer, Set<Item>> floors) {
+    private RTGState(final int elevatorFloor, final List<String> elements,
+                     final int[] generatorFloors, final int[] microchipFloors) {
         this.elevatorFloor = elevatorFloor;
-        this.floors = Map.copyOf(floors);
-    }
-
-    private static Map<Integer, Set<Item>> createEmptyFloors() {
-        return IntStream.range(0, 4)
-                .boxed()
-                .collect(Collectors.toUnmodifiableMap(
-                        floor -> floor,
-                        floor -> Set.of()
-                ));
+        this.elements = elements;
+        this.generatorFloors = generatorFloors;
+        this.microchipFloors = microchipFloors;
     }
 
     public RTGState addItem(final int floor, final String element, final ItemType type) {
-        Item newItem = new Item(element, type);
-        Map<Integer, Set<Item>> newFloors = IntStream.range(0, 4)
-                .boxed()
-                .collect(Collectors.toUnmodifiableMap(
-                        f -> f,
-                        f -> f == floor
-                                ? Stream.concat(
-                                        floors.getOrDefault(f, Set.of()).stream(),
-                                        Stream.of(newItem)
-                                ).collect(Collectors.toUnmodifiableSet())
-                                : Set.copyOf(floors.getOrDefault(f, Set.of()))
-                ));
-        return new RTGState(elevatorFloor, newFloors);
-    }
-
-    public RTGState moveItem(final int fromFloor, final int toFloor, final Item item) {
-        Map<Integer, Set<Item>> newFloors = IntStream.range(0, 4)
-                .boxed()
-                .collect(Collectors.toUnmodifiableMap(
-                        f -> f,
-                        f -> {
-                            if (f == fromFloor) {
-                                return floors.getOrDefault(f, Set.of()).stream()
-                                        .filter(i -> !i.equals(item))
-                                        .collect(Collectors.toUnmodifiableSet());
-                            } else if (f == toFloor) {
-                                return Stream.concat(
-                                        floors.getOrDefault(f, Set.of()).stream(),
-                                        Stream.of(item)
-                                ).collect(Collectors.toUnmodifiableSet());
-                            } else {
-                                return Set.copyOf(floors.getOrDefault(f, Set.of()));
-                            }
-                        }
-                ));
-        return new RTGState(elevatorFloor, newFloors);
-    }
-
-    public List<Item> getItemsOnFloor(final int floor) {
-        return floors.getOrDefault(floor, Set.of()).stream()
-                .toList();
+        if (floor < 0 || floor >= PackedState.FLOORS) {
+            throw new IllegalArgumentException("Invalid floor: " + floor);
+        }
+        int index = elements.indexOf(element);
+        List<String> newElements = elements;
+        int[] newGenerators = generatorFloors;
+        int[] newMicrochips = microchipFloors;
+        if (index < 0) {
+            newElements = new ArrayList<>(elements);
+            newElements.add(element);
+            newElements = List.copyOf(newElements);
+            index = elements.size();
+            newGenerators = Arrays.copyOf(generatorFloors, index + 1);
+            newMicrochips = Arrays.copyOf(microchipFloors, index + 1);
+            newGenerators[index] = UNPLACED;
+            newMicrochips[index] = UNPLACED;
+        } else {
+            newGenerators = generatorFloors.clone();
+            newMicrochips = microchipFloors.clone();
+        }
+        if (type == ItemType.GENERATOR) {
+            newGenerators[index] = floor;
+        } else {
+            newMicrochips[index] = floor;
+        }
+        return new RTGState(elevatorFloor, newElements, newGenerators, newMicrochips);
     }
 
     public int getElevatorFloor() {
@@ -79,68 +64,24 @@ public final class RTGState {
     }
 
     public RTGState withElevatorFloor(final int floor) {
-        return new RTGState(floor, floors);
-    }
-
-    public boolean isComplete() {
-        // All items should be on floor 3 (4th floor)
-        return IntStream.range(0, 3)
-                .allMatch(i -> floors.getOrDefault(i, Set.of()).isEmpty());
+        return new RTGState(floor, elements, generatorFloors, microchipFloors);
     }
 
-    public boolean isValidState() {
-        // Check each floor for radiation safety
-        return IntStream.range(0, 4)
-                .allMatch(this::isFloorSafe);
+    public int pairs() {
+        return elements.size();
     }
 
-    private boolean isFloorSafe(final int floor) {
-        Set<Item> items = floors.getOrDefault(floor, Set.of());
-        
-        Set<String> generators = items.stream()
-                .filter(item -> item.type() == ItemType.GENERATOR)
-                .map(Item::element)
-                .collect(Collectors.toUnmodifiableSet());
-        
-        Set<String> microchips = items.stream()
-                .filter(item -> item.type() == ItemType.MICROCHIP)
-                .map(Item::element)
-                .collect(Collectors.toUnmodifiableSet());
-
-        // If there are no generators, it's safe
-        if (generators.isEmpty()) {
-            return true;
+    /**
+     * The canonical packed state, elements are interchangeable so only the sorted pairs are kept
+     *
+     * @throws IllegalStateException if an element has a generator without microchip or the other way around
+     */
+    public long encode() {
+        for (int i = 0; i < elements.size(); i++) {
+            if (generatorFloors[i] == UNPLACED || microchipFloors[i] == UNPLACED) {
+                throw new IllegalStateException("Element without generator and microchip pair: " + elements.get(i));
+            }
         }
-
-        // Check if any microchip is unprotected
-        return microchips.stream()
-                .allMatch(generators::contains);
-    }
-
-    public String getStateKey() {
-        // Create a canonical representation for memoization
-        // We can use element pairs instead of specific elements for better pruning
-        return IntStream.range(0, 4)
-                .boxed()
-                .map(floor -> {
-                    Set<Item> items = floors.getOrDefault(floor, Set.of());
-                    Map<String, Integer> elementFloors = items.stream()
-                            .collect(Collectors.toMap(
-                                    Item::element,
-                                    item -> item.type() == ItemType.GENERATOR ? 1000 + floor : floor,
-                                    Integer::sum
-                            ));
-                    
-                    return elementFloors.values().stream()
-                            .sorted()
-                            .toList();
-                })
-                .collect(Collectors.collectingAndThen(
-                        Collectors.toList(),
-                        pairs -> elevatorFloor + "|" + pairs.stream()
-                                .map(Object::toString)
-                                .collect(Collectors.joining("|")) + "|"
-                ));
+        return PackedState.encode(elevatorFloor, generatorFloors, microchipFloors);
     }
 }
-
@@ -1,8 +0,0 @@
-package info.jab.aoc2016.day11;
-
-/**
- * Represents a state with its step count in the BFS search.
- */
-public record StateStep(RTGState state, int steps) {
-}
-
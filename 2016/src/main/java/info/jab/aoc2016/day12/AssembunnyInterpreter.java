@@ -1,105 +1,33 @@
 package info.jab.aoc2016.day12;
 
 import info.jab.aoc.Solver;
-import info.jab.aoc2016.day12.instructions.Cpy;
-import info.jab.aoc2016.day12.instructions.Dec;
-import info.jab.aoc2016.day12.instructions.Inc;
-import info.jab.aoc2016.day12.instructions.Instruction;
-import info.jab.aoc2016.day12.instructions.Jnz;
-import info.jab.aoc2016.day12.instructions.LiteralSource;
-import info.jab.aoc2016.day12.instructions.RegisterSource;
-import info.jab.aoc2016.day12.instructions.Source;
+import info.jab.aoc2016.assembunny.AssembunnyProgram;
 import com.putoet.resources.ResourceLines;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Assembunny interpreter for Day 12
  * Supports instructions: cpy, inc, dec, jnz
- * Uses sealed class hierarchy following Effective Java principles (prefer class hierarchies to tagged classes)
+ * Runs on the compiled AssembunnyProgram: int[] opcodes and registers with fused add/mul loops
  */
 public class AssembunnyInterpreter implements Solver<Integer> {
 
     @Override
     public Integer solvePartOne(String fileName) {
-        List<String> lines = ResourceLines.list(fileName);
-        List<Instruction> instructions = parseInstructions(lines);
-        int[] registers = new int[4];
+        int[] registers = new int[AssembunnyProgram.REGISTERS];
 
-        execute(instructions, registers);
-        return registers[0];
+        return execute(fileName, registers);
     }
 
     @Override
     public Integer solvePartTwo(String fileName) {
-        List<String> lines = ResourceLines.list(fileName);
-        List<Instruction> instructions = parseInstructions(lines);
-        int[] registers = new int[4];
+        int[] registers = new int[AssembunnyProgram.REGISTERS];
         registers[2] = 1; // c = 1
 
-        execute(instructions, registers);
-        return registers[0];
-    }
-
-    private List<Instruction> parseInstructions(List<String> lines) {
-        List<Instruction> instructions = new ArrayList<>(lines.size());
-        for (String line : lines) {
-            String[] parts = line.split(" ");
-            String opStr = parts[0];
-
-            switch (opStr) {
-                case "cpy" -> {
-                    // cpy x y
-                    Source source = parseSource(parts[1]);
-                    int targetRegister = getRegisterIndex(parts[2]);
-                    instructions.add(new Cpy(source, targetRegister));
-                }
-                case "inc" -> {
-                    // inc x
-                    int register = getRegisterIndex(parts[1]);
-                    instructions.add(new Inc(register));
-                }
-                case "dec" -> {
-                    // dec x
-                    int register = getRegisterIndex(parts[1]);
-                    instructions.add(new Dec(register));
-                }
-                case "jnz" -> {
-                    // jnz x y
-                    Source source = parseSource(parts[1]);
-                    int offset = Integer.parseInt(parts[2]);
-                    instructions.add(new Jnz(source, offset));
-                }
-                default -> throw new IllegalArgumentException("Unknown instruction: " + opStr);
-            }
-        }
-        return instructions;
-    }
-
-    private Source parseSource(String s) {
-        if (isRegister(s)) {
-            return new RegisterSource(getRegisterIndex(s));
-        } else {
-            return new LiteralSource(Integer.parseInt(s));
-        }
+        return execute(fileName, registers);
     }
 
-    private boolean isRegister(String s) {
-        return s.length() == 1 && s.charAt(0) >= 'a' && s.charAt(0) <= 'd';
-    }
-
-    private int getRegisterIndex(String s) {
-        return s.charAt(0) - 'a';
-    }
-
-    private void execute(List<Instruction> instructions, int[] registers) {
-        int pc = 0;
-        int size = instructions.size();
-
-        while (pc < size) {
-            Instruction ins = instructions.get(pc);
-            pc = ins.execute(registers, pc);
-        }
+    private Integer execute(String fileName, int[] registers) {
+        AssembunnyProgram program = AssembunnyProgram.parse(ResourceLines.list(fileName));
+        return program.run(registers)[0];
     }
 }
@@ -1,20 +1,31 @@
 package info.jab.aoc2016.day14;
 
 import com.putoet.resources.ResourceLines;
+import com.putoet.security.MD5Engine;
 import info.jab.aoc.Solver;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.IntStream;
 
 /**
  * Solver for Day 14: One-Time Pad
  * Finds keys in a one-time pad using MD5 hashes.
+ *
+ * Hashes are reduced to two facts as soon as they are computed: the hex digit of the first triplet
+ * and a 16 bit mask of the digits that appear five times in a row. Both are kept in a fixed ring buffer
+ * and a count per hex digit tracks how many hashes of the next 1000 contain its quintuplet, so checking
+ * a key is a single array lookup.
  */
 public final class OneTimePad implements Solver<Integer> {
 
+    private static final int LOOKAHEAD = 1000;
+    private static final int BATCH = 2048;
+    // Holds the lookahead window plus one batch, a power of two so the slot is an index mask
+    private static final int RING_SIZE = 4096;
+    private static final int RING_MASK = RING_SIZE - 1;
+    private static final int STRETCH_ROUNDS = 2016;
+    private static final int NO_TRIPLET = -1;
+
     @Override
     public Integer solvePartOne(final String fileName) {
         var lines = ResourceLines.list(fileName);
@@ -30,118 +41,114 @@ public final class OneTimePad implements Solver<Integer> {
     }
 
     private int solve(String salt, int n, boolean stretched) {
-        // Window size needs to be 1001 (current + 1000 future)
-        // We'll keep a buffer larger than that to batch computations
-        List<String> window = new ArrayList<>(2000);
-        int index = 0;
+        byte[] triplets = new byte[RING_SIZE];
+        short[] quintuplets = new short[RING_SIZE];
+        // Number of hashes in (index, index + 1000] with a quintuplet of each hex digit
+        int[] quintupletCounts = new int[16];
+
+        int computed = fillWindow(triplets, quintuplets, salt, 0, stretched);
+        for (int i = 1; i <= LOOKAHEAD; i++) {
+            addQuintuplets(quintupletCounts, quintuplets[i & RING_MASK], 1);
+        }
+
         int keysFound = 0;
-        
-        // Initial fill
-        fillWindow(window, salt, index, 2000, stretched);
-        
-        while (keysFound < n) {
-            // Ensure window has enough elements for lookahead (1000 items)
-            // If we drop below 1001, we fetch another batch
-            if (window.size() <= 1001) {
-                int currentEndIndex = index + window.size();
-                fillWindow(window, salt, currentEndIndex, 1000, stretched);
-            }
-            
-            String currentHash = window.remove(0);
-            Character triplet = findTriplet(currentHash);
-            
-            if (triplet != null && hasQuintuplet(window, triplet)) {
-                // Check next 1000 hashes
+        for (int index = 0; ; index++) {
+            int triplet = triplets[index & RING_MASK];
+            if (triplet != NO_TRIPLET && quintupletCounts[triplet] > 0) {
                 keysFound++;
                 if (keysFound == n) {
                     return index;
                 }
             }
-            index++;
+
+            // Slide the lookahead window one hash forward
+            if (index + LOOKAHEAD + 1 >= computed) {
+                computed = fillWindow(triplets, quintuplets, salt, computed, stretched);
+            }
+            addQuintuplets(quintupletCounts, quintuplets[(index + 1) & RING_MASK], -1);
+            addQuintuplets(quintupletCounts, quintuplets[(index + LOOKAHEAD + 1) & RING_MASK], 1);
         }
-        
-        return -1;
     }
-    
-    private void fillWindow(List<String> window, String salt, int startIndex, int count, boolean stretched) {
+
+    private static void addQuintuplets(int[] counts, short mask, int delta) {
+        for (int bits = mask & 0xFFFF; bits != 0; bits &= bits - 1) {
+            counts[Integer.numberOfTrailingZeros(bits)] += delta;
+        }
+    }
+
+    /**
+     * Hash the next batch in parallel, straight into the ring buffer
+     *
+     * @return The index of the first hash not computed yet
+     */
+    private int fillWindow(byte[] triplets, short[] quintuplets, String salt, int startIndex, boolean stretched) {
         try {
-            List<String> newHashes = IntStream.range(startIndex, startIndex + count)
+            IntStream.range(startIndex, startIndex + BATCH)
                 .parallel()
-                .mapToObj(i -> {
+                .forEach(i -> {
                     MD5Worker w = getWorker();
-                    return stretched ? w.stretchedHash(salt + i) : w.hash(salt + i);
-                })
-                .toList();
-            window.addAll(newHashes);
+                    w.hash(salt + i, stretched);
+                    triplets[i & RING_MASK] = w.triplet();
+                    quintuplets[i & RING_MASK] = w.quintuplets();
+                });
         } finally {
             WORKER.remove();
         }
+        return startIndex + BATCH;
     }
 
-    private Character findTriplet(final String hash) {
-        int len = hash.length();
-        for (int i = 0; i < len - 2; i++) {
-            char c = hash.charAt(i);
-            if (hash.charAt(i + 1) == c && hash.charAt(i + 2) == c) {
-                return c;
-            }
-        }
-        return null;
-    }
-
-    private boolean hasQuintuplet(final List<String> window, final char character) {
-        String quintuplet = String.valueOf(character).repeat(5);
-        // Check next 1000 items
-        for (int i = 0; i < 1000 && i < window.size(); i++) {
-            if (window.get(i).contains(quintuplet)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    // ThreadLocal to reuse MessageDigest
+    // ThreadLocal to reuse the hashing buffers
     private static final ThreadLocal<MD5Worker> WORKER = ThreadLocal.withInitial(MD5Worker::new);
-    
+
     private static MD5Worker getWorker() {
         return WORKER.get();
     }
 
     private static class MD5Worker {
-        private final MessageDigest md;
-        private final char[] hexArray = "0123456789abcdef".toCharArray();
-
-        MD5Worker() {
-            try {
-                md = MessageDigest.getInstance("MD5");
-            } catch (NoSuchAlgorithmException e) {
-                throw new RuntimeException(e);
+        private final MD5Engine.Hasher hasher = new MD5Engine.Hasher();
+        private final byte[] digest = new byte[MD5Engine.DIGEST_LENGTH];
+        private final byte[] hex = new byte[MD5Engine.HEX_LENGTH];
+
+        void hash(String input, boolean stretched) {
+            byte[] message = input.getBytes(StandardCharsets.UTF_8);
+            hasher.hexDigest(message, message.length, digest, hex);
+            if (stretched) {
+                // Every round hashes the hex text of the previous one, in place
+                for (int i = 0; i < STRETCH_ROUNDS; i++) {
+                    hasher.hexDigest(hex, hex.length, digest, hex);
+                }
             }
         }
-        
-        String hash(String input) {
-            md.reset();
-            md.update(input.getBytes());
-            return bytesToHex(md.digest());
-        }
-        
-        String stretchedHash(String input) {
-            String h = hash(input);
-            for (int i = 0; i < 2016; i++) {
-                h = hash(h);
+
+        /**
+         * The hex digit of the first run of three in the last hash, or NO_TRIPLET
+         */
+        byte triplet() {
+            for (int i = 0; i < MD5Engine.HEX_LENGTH - 2; i++) {
+                int digit = MD5Engine.nibble(digest, i);
+                if (MD5Engine.nibble(digest, i + 1) == digit && MD5Engine.nibble(digest, i + 2) == digit) {
+                    return (byte) digit;
+                }
             }
-            return h;
+            return NO_TRIPLET;
         }
 
-        private String bytesToHex(byte[] bytes) {
-            char[] hexChars = new char[bytes.length * 2];
-            for (int j = 0; j < bytes.length; j++) {
-                int v = bytes[j] & 0xFF;
-                hexChars[j * 2] = hexArray[v >>> 4];
-                hexChars[j * 2 + 1] = hexArray[v & 0x0F];
+        /**
+         * Bit d is set when the hex digit d appears five times in a row in the last hash
+         */
+        short quintuplets() {
+            int mask = 0;
+            int run = 1;
+            int previous = MD5Engine.nibble(digest, 0);
+            for (int i = 1; i < MD5Engine.HEX_LENGTH; i++) {
+                int digit = MD5Engine.nibble(digest, i);
+                run = digit == previous ? run + 1 : 1;
+                if (run == 5) {
+                    mask |= 1 << digit;
+                }
+                previous = digit;
             }
-            return new String(hexChars);
+            return (short) mask;
         }
     }
 }
-
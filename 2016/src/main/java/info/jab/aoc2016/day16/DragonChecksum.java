@@ -6,79 +6,117 @@ import info.jab.aoc.Solver;
 /**
  * Solver for Day 16: Dragon Checksum
  * Generates data using dragon curve and calculates checksum.
+ *
+ * The disk is never materialised. Repeating the dragon step only ever appends, so the data is the
+ * infinite sequence a d1 b d2 a d3 b ..., with a the seed, b its reversed complement and d1 d2 ... the
+ * separator bits of the dragon curve. Halving the checksum until its length is odd folds blocks of
+ * 2^k bits into one digit, which is 1 when the block holds an even number of ones, so every digit comes
+ * from the parity of two prefixes of that sequence, each counted in O(log n).
  */
 public final class DragonChecksum implements Solver<String> {
 
     @Override
     public String solvePartOne(final String fileName) {
         String initialState = ResourceLines.line(fileName).trim();
-        int diskLength = 272;
-        
-        // Generate data using dragon curve until we have enough
-        String data = generateData(initialState, diskLength);
-        
-        // Calculate checksum
-        return calculateChecksum(data);
+        return checksum(initialState, 272);
     }
 
     @Override
     public String solvePartTwo(final String fileName) {
         String initialState = ResourceLines.line(fileName).trim();
-        int diskLength = 35651584;
-        
-        // Generate data using dragon curve until we have enough
-        String data = generateData(initialState, diskLength);
-        
-        // Calculate checksum
-        return calculateChecksum(data);
+        return checksum(initialState, 35651584);
     }
 
-    private String generateData(final String initialState, final int requiredLength) {
-        String data = initialState;
-        
-        while (data.length() < requiredLength) {
-            String a = data;
-            String b = reverseAndFlip(a);
-            data = a + "0" + b;
+    /**
+     * The checksum of the first diskLength bits of dragon data grown from the seed
+     *
+     * @param seed The initial state, made of 0 and 1
+     * @param diskLength The length of the disk to fill, its odd part is the checksum length
+     * @return The checksum
+     */
+    static String checksum(final String seed, final long diskLength) {
+        if (seed.isEmpty() || diskLength <= 0) {
+            throw new IllegalArgumentException("Need a seed and a positive disk length");
+        }
+        long block = Long.lowestOneBit(diskLength);
+        long digits = diskLength / block;
+        if (digits > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Checksum too long for a String: " + digits);
         }
-        
-        // Return only the first requiredLength characters
-        return data.substring(0, requiredLength);
-    }
 
-    private String reverseAndFlip(final String input) {
-        StringBuilder reversed = new StringBuilder(input).reverse();
-        StringBuilder flipped = new StringBuilder();
-        
-        for (int i = 0; i < reversed.length(); i++) {
-            char c = reversed.charAt(i);
-            flipped.append(c == '0' ? '1' : '0');
+        DragonData data = new DragonData(seed);
+        StringBuilder checksum = new StringBuilder((int) digits);
+        long previous = 0;
+        for (long digit = 1; digit <= digits; digit++) {
+            long parity = data.onesBefore(digit * block) & 1;
+            long blockParity = parity ^ previous;
+            // Without any halving the checksum is the data itself
+            boolean one = block == 1 ? blockParity == 1 : blockParity == 0;
+            checksum.append(one ? '1' : '0');
+            previous = parity;
         }
-        
-        return flipped.toString();
+        return checksum.toString();
     }
 
-    private String calculateChecksum(final String data) {
-        String checksum = data;
-        
-        while (checksum.length() % 2 == 0) {
-            StringBuilder nextChecksum = new StringBuilder();
-            
-            for (int i = 0; i < checksum.length(); i += 2) {
-                char c1 = checksum.charAt(i);
-                char c2 = checksum.charAt(i + 1);
-                
-                if (c1 == c2) {
-                    nextChecksum.append('1');
-                } else {
-                    nextChecksum.append('0');
+    /**
+     * Counts ones in prefixes of the infinite dragon data
+     */
+    private static final class DragonData {
+        private final int length;
+        // Ones in the first i bits of the seed and of its reversed complement
+        private final int[] seedOnes;
+        private final int[] flippedOnes;
+
+        DragonData(final String seed) {
+            this.length = seed.length();
+            this.seedOnes = new int[length + 1];
+            this.flippedOnes = new int[length + 1];
+            for (int i = 0; i < length; i++) {
+                char bit = seed.charAt(i);
+                char mirrored = seed.charAt(length - 1 - i);
+                if ((bit != '0' && bit != '1') || (mirrored != '0' && mirrored != '1')) {
+                    throw new IllegalArgumentException("Invalid seed: " + seed);
                 }
+                seedOnes[i + 1] = seedOnes[i] + (bit == '1' ? 1 : 0);
+                flippedOnes[i + 1] = flippedOnes[i] + (mirrored == '0' ? 1 : 0);
             }
-            
-            checksum = nextChecksum.toString();
         }
-        
-        return checksum;
+
+        /**
+         * Ones in the first n bits: whole chunks of seed or flipped seed plus their separator, then the rest
+         */
+        long onesBefore(final long n) {
+            long chunks = n / (length + 1);
+            int rest = (int) (n % (length + 1));
+            long seeds = (chunks + 1) / 2;
+            long flipped = chunks / 2;
+            long ones = seeds * seedOnes[length] + flipped * flippedOnes[length] + separatorOnes(chunks);
+            return ones + ((chunks & 1) == 0 ? seedOnes[rest] : flippedOnes[rest]);
+        }
+
+        /**
+         * Ones among the first n dragon curve separators.
+         * The first 2^k - 1 separators are D, 0, reversed complement of D with D the first 2^(k-1) - 1,
+         * and hold 2^(k-1) - 1 ones.
+         */
+        private static long separatorOnes(final long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long half = Long.highestOneBit(n + 1) >>> 1; // n + 1 is in [2 * half, 4 * half)
+            if (half == 0) {
+                return 0;
+            }
+            long fullOnes = half - 1; // ones in the first 2 * half - 1 separators
+            if (n < 2 * half) {
+                // Whole D plus, maybe, the middle 0
+                return fullOnes;
+            }
+            // D, the middle 0, then the first r separators of the reversed complement of the next D
+            long r = n - 2 * half;
+            long size = 2 * half - 1;
+            long onesInTail = fullOnes - separatorOnes(size - r);
+            return fullOnes + r - onesInTail;
+        }
     }
 }
-
@@ -1,15 +1,23 @@
 package info.jab.aoc2016.day17;
 
 import com.putoet.resources.ResourceLines;
-import com.putoet.security.MD5;
+import com.putoet.security.MD5Engine;
 import info.jab.aoc.Solver;
 
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
+import java.util.function.Consumer;
 
 /**
  * Solver for Day 17: Two Steps Forward
  * Navigates a vault using MD5 hash-based door states.
+ *
+ * Every state carries a hasher that has absorbed the passcode and its path, so a step forks that midstate
+ * and adds one byte instead of hashing the whole path again. Doors are decoded from the first two raw
+ * digest bytes, no hex text is built.
  */
 public final class TwoStepsForward implements Solver<String> {
 
@@ -17,6 +25,13 @@ public final class TwoStepsForward implements Solver<String> {
     private static final int TARGET_X = 3;
     private static final int TARGET_Y = 3;
 
+    // Up, down, left, right, in the order of the digest nibbles
+    private static final byte[] MOVES = {'U', 'D', 'L', 'R'};
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    // A door is open for b, c, d, e or f
+    private static final int FIRST_OPEN = 0xb;
+
     @Override
     public String solvePartOne(final String fileName) {
         var lines = ResourceLines.list(fileName);
@@ -35,110 +50,113 @@ public final class TwoStepsForward implements Solver<String> {
      * Find the shortest path to the vault using BFS
      */
     private String findShortestPath(final String passcode) {
-        Queue<VaultState> queue = new LinkedList<>();
-        queue.offer(new VaultState(0, 0, ""));
+        Queue<VaultState> queue = new ArrayDeque<>();
+        queue.offer(start(passcode));
+        byte[] digest = new byte[MD5Engine.DIGEST_LENGTH];
 
         while (!queue.isEmpty()) {
             VaultState current = queue.poll();
 
             // Check if we reached the target
-            if (current.x() == TARGET_X && current.y() == TARGET_Y) {
+            if (isTarget(current.x(), current.y())) {
                 return current.path();
             }
-
-            // Get open doors based on MD5 hash
-            String hash = MD5.hash(passcode + current.path()).toLowerCase();
-            boolean[] doors = getOpenDoors(hash);
-
-            // Try moving in each direction
-            if (doors[0] && current.y() > 0) { // Up
-                queue.offer(new VaultState(current.x(), current.y() - 1, current.path() + "U"));
-            }
-            if (doors[1] && current.y() < GRID_SIZE - 1) { // Down
-                queue.offer(new VaultState(current.x(), current.y() + 1, current.path() + "D"));
-            }
-            if (doors[2] && current.x() > 0) { // Left
-                queue.offer(new VaultState(current.x() - 1, current.y(), current.path() + "L"));
-            }
-            if (doors[3] && current.x() < GRID_SIZE - 1) { // Right
-                queue.offer(new VaultState(current.x() + 1, current.y(), current.path() + "R"));
-            }
+            expand(current, digest, queue::offer);
         }
 
         return ""; // No path found
     }
 
     /**
-     * Find the length of the longest path to the vault using DFS
+     * Find the length of the longest path to the vault.
+     * The first levels are expanded breadth first until there is enough work for every core,
+     * then each subtree is searched depth first in parallel.
      */
     private int findLongestPathLength(final String passcode) {
-        return findLongestPathDFS(passcode, 0, 0, "");
+        int tasks = Runtime.getRuntime().availableProcessors() * 4;
+        byte[] digest = new byte[MD5Engine.DIGEST_LENGTH];
+        int longest = -1;
+
+        List<VaultState> frontier = List.of(start(passcode));
+        while (!frontier.isEmpty() && frontier.size() < tasks) {
+            List<VaultState> next = new ArrayList<>();
+            for (VaultState state : frontier) {
+                if (isTarget(state.x(), state.y())) {
+                    longest = Math.max(longest, state.depth());
+                } else {
+                    expand(state, digest, next::add);
+                }
+            }
+            frontier = next;
+        }
+
+        int deepest = frontier.parallelStream()
+            .mapToInt(state -> findLongestPathDFS(state.hasher(), state.x(), state.y(), state.depth(),
+                new byte[MD5Engine.DIGEST_LENGTH]))
+            .max()
+            .orElse(-1);
+        return Math.max(longest, deepest);
     }
 
-    private int findLongestPathDFS(final String passcode, final int x, final int y, final String path) {
+    private int findLongestPathDFS(final MD5Engine.Hasher hasher, final int x, final int y, final int depth,
+                                   final byte[] digest) {
         // Check if we reached the target
-        if (x == TARGET_X && y == TARGET_Y) {
-            return path.length();
+        if (isTarget(x, y)) {
+            return depth;
         }
 
-        // Get open doors based on MD5 hash
-        String hash = MD5.hash(passcode + path).toLowerCase();
-        boolean[] doors = getOpenDoors(hash);
-
+        int doors = openDoors(hasher, x, y, digest);
         int maxLength = -1;
-
-        // Try moving in each direction
-        if (doors[0] && y > 0) { // Up
-            int length = findLongestPathDFS(passcode, x, y - 1, path + "U");
-            if (length > maxLength) {
-                maxLength = length;
-            }
-        }
-        if (doors[1] && y < GRID_SIZE - 1) { // Down
-            int length = findLongestPathDFS(passcode, x, y + 1, path + "D");
-            if (length > maxLength) {
-                maxLength = length;
+        for (int door = 0; door < MOVES.length; door++) {
+            if ((doors & 1 << door) == 0) {
+                continue;
             }
+            // The last open door takes over the parent midstate, the others fork it
+            MD5Engine.Hasher child = (doors >>> (door + 1)) == 0 ? hasher : hasher.fork();
+            child.update(MOVES[door]);
+            maxLength = Math.max(maxLength, findLongestPathDFS(child, x + DX[door], y + DY[door], depth + 1, digest));
         }
-        if (doors[2] && x > 0) { // Left
-            int length = findLongestPathDFS(passcode, x - 1, y, path + "L");
-            if (length > maxLength) {
-                maxLength = length;
-            }
-        }
-        if (doors[3] && x < GRID_SIZE - 1) { // Right
-            int length = findLongestPathDFS(passcode, x + 1, y, path + "R");
-            if (length > maxLength) {
-                maxLength = length;
+        return maxLength;
+    }
+
+    private VaultState start(final String passcode) {
+        byte[] bytes = passcode.getBytes(StandardCharsets.US_ASCII);
+        MD5Engine.Hasher hasher = new MD5Engine.Hasher();
+        hasher.update(bytes, bytes.length);
+        return new VaultState(0, 0, 0, null, (byte) 0, hasher);
+    }
+
+    private void expand(final VaultState state, final byte[] digest, final Consumer<VaultState> next) {
+        int doors = openDoors(state.hasher(), state.x(), state.y(), digest);
+        for (int door = 0; door < MOVES.length; door++) {
+            if ((doors & 1 << door) == 0) {
+                continue;
             }
+            MD5Engine.Hasher child = (doors >>> (door + 1)) == 0 ? state.hasher() : state.hasher().fork();
+            child.update(MOVES[door]);
+            next.accept(new VaultState(state.x() + DX[door], state.y() + DY[door], state.depth() + 1,
+                state, MOVES[door], child));
         }
-
-        return maxLength;
     }
 
     /**
-     * Determine which doors are open based on the MD5 hash
-     * Returns an array of 4 booleans: [up, down, left, right]
-     * A door is open if the corresponding character is b, c, d, e, or f
+     * Doors that are open and lead inside the grid, bit 0 up, 1 down, 2 left and 3 right
      */
-    private boolean[] getOpenDoors(final String hash) {
-        boolean[] doors = new boolean[4];
-        
-        if (hash.length() >= 4) {
-            doors[0] = isOpen(hash.charAt(0)); // Up
-            doors[1] = isOpen(hash.charAt(1)); // Down
-            doors[2] = isOpen(hash.charAt(2)); // Left
-            doors[3] = isOpen(hash.charAt(3)); // Right
+    private int openDoors(final MD5Engine.Hasher hasher, final int x, final int y, final byte[] digest) {
+        hasher.fork().finish(digest);
+        int doors = 0;
+        for (int door = 0; door < MOVES.length; door++) {
+            int nx = x + DX[door];
+            int ny = y + DY[door];
+            if (MD5Engine.nibble(digest, door) >= FIRST_OPEN
+                    && nx >= 0 && nx < GRID_SIZE && ny >= 0 && ny < GRID_SIZE) {
+                doors |= 1 << door;
+            }
         }
-        
         return doors;
     }
 
-    /**
-     * Check if a door is open (character is b, c, d, e, or f)
-     */
-    private boolean isOpen(final char c) {
-        return c == 'b' || c == 'c' || c == 'd' || c == 'e' || c == 'f';
+    private boolean isTarget(final int x, final int y) {
+        return x == TARGET_X && y == TARGET_Y;
     }
 }
-
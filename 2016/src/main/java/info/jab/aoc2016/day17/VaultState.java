@@ -1,8 +1,22 @@
 package info.jab.aoc2016.day17;
 
+import com.putoet.security.MD5Engine;
+
+import java.nio.charset.StandardCharsets;
+
 /**
  * Represents a state in the vault navigation.
+ *
+ * The path is kept as a chain of moves back to the start, and the hasher has already absorbed
+ * the passcode and the path, so the next hashes only add one byte to it.
  */
-public record VaultState(int x, int y, String path) {
-}
+public record VaultState(int x, int y, int depth, VaultState parent, byte move, MD5Engine.Hasher hasher) {
 
+    public String path() {
+        byte[] moves = new byte[depth];
+        for (VaultState state = this; state.parent != null; state = state.parent) {
+            moves[state.depth - 1] = state.move;
+        }
+        return new String(moves, StandardCharsets.US_ASCII);
+    }
+}
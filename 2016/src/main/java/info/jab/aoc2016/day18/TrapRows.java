@@ -0,0 +1,101 @@
+package info.jab.aoc2016.day18;
+
+import java.util.Arrays;
+
+/**
+ * Rows of tiles as long[] bitsets, bit i set when tile i is a trap.
+ *
+ * The four trap rules reduce to left XOR right, so the next row is the row shifted one tile each way
+ * and xored, a few word operations per 64 tiles, and safe tiles are counted with Long.bitCount.
+ * The evolution is deterministic, so once a row repeats the rest is a cycle: Brent's cycle detection
+ * keeps a single saved row, and the rows left after a repeat are counted from the sum of one cycle.
+ */
+final class TrapRows {
+
+    private final int width;
+    private final int words;
+    private final long lastMask;
+    private final long[] first;
+
+    TrapRows(final String firstRow) {
+        this.width = firstRow.length();
+        this.words = Math.max(1, (width + 63) >>> 6);
+        int lastBits = width & 63;
+        this.lastMask = lastBits == 0 ? (width == 0 ? 0L : -1L) : (1L << lastBits) - 1;
+        this.first = new long[words];
+        for (int i = 0; i < width; i++) {
+            char tile = firstRow.charAt(i);
+            if (tile == '^') {
+                first[i >>> 6] |= 1L << i;
+            } else if (tile != '.') {
+                throw new IllegalArgumentException("Invalid tile: " + tile);
+            }
+        }
+    }
+
+    /**
+     * The number of safe tiles in the first rows
+     *
+     * @param rows The number of rows, the first one included
+     * @return The number of safe tiles
+     */
+    long countSafe(final long rows) {
+        long[] row = first.clone();
+        long[] next = new long[words];
+        long[] saved = first.clone();
+        long savedIndex = 0;
+        long savedTotal = 0;
+        long power = 1;
+
+        long total = 0;
+        for (long index = 0; index < rows; index++) {
+            if (index > savedIndex && Arrays.equals(row, saved)) {
+                // Rows savedIndex .. index - 1 repeat for ever
+                long cycle = index - savedIndex;
+                long cycleTotal = total - savedTotal;
+                long remaining = rows - index;
+                total += remaining / cycle * cycleTotal;
+                for (long i = remaining % cycle; i > 0; i--) {
+                    total += safe(row);
+                    step(row, next);
+                    long[] swap = row;
+                    row = next;
+                    next = swap;
+                }
+                return total;
+            }
+            if (index == power) {
+                // Brent: move the saved row forward at every power of two
+                System.arraycopy(row, 0, saved, 0, words);
+                savedIndex = index;
+                savedTotal = total;
+                power <<= 1;
+            }
+
+            total += safe(row);
+            step(row, next);
+            long[] swap = row;
+            row = next;
+            next = swap;
+        }
+        return total;
+    }
+
+    private int safe(final long[] row) {
+        int traps = 0;
+        for (long word : row) {
+            traps += Long.bitCount(word);
+        }
+        return width - traps;
+    }
+
+    // Tile i becomes a trap when exactly one of tiles i - 1 and i + 1 is, tiles past the walls are safe
+    private void step(final long[] row, final long[] next) {
+        for (int k = 0; k < words; k++) {
+            long left = row[k] << 1 | (k > 0 ? row[k - 1] >>> 63 : 0L);
+            long right = row[k] >>> 1 | (k + 1 < words ? row[k + 1] << 63 : 0L);
+            next[k] = left ^ right;
+        }
+        next[words - 1] &= lastMask;
+    }
+}
@@ -1,6 +1,7 @@
 package info.jab.aoc2016.day20;
 
-import com.putoet.resources.ResourceLines;
+import com.putoet.resources.MappedResource;
+import com.putoet.resources.NumberScanner;
 import info.jab.aoc.Solver;
 
 import java.util.ArrayList;
@@ -15,19 +16,7 @@ public final class FirewallRules implements Solver<Long> {
 
     @Override
     public Long solvePartOne(final String fileName) {
-        var lines = ResourceLines.list(fileName);
-        
-        // Parse ranges
-        List<Range> ranges = new ArrayList<>();
-        for (String line : lines) {
-            if (line.trim().isEmpty()) {
-                continue;
-            }
-            String[] parts = line.split("-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
-            ranges.add(new Range(start, end));
-        }
+        List<Range> ranges = parseRanges(fileName);
         
         // Sort by start
         ranges.sort(Comparator.comparingLong(Range::start));
@@ -59,19 +48,7 @@ public final class FirewallRules implements Solver<Long> {
 
     @Override
     public Long solvePartTwo(final String fileName) {
-        var lines = ResourceLines.list(fileName);
-        
-        // Parse ranges
-        List<Range> ranges = new ArrayList<>();
-        for (String line : lines) {
-            if (line.trim().isEmpty()) {
-                continue;
-            }
-            String[] parts = line.split("-");
-            long start = Long.parseLong(parts[0]);
-            long end = Long.parseLong(parts[1]);
-            ranges.add(new Range(start, end));
-        }
+        List<Range> ranges = parseRanges(fileName);
         
         // Sort by start
         ranges.sort(Comparator.comparingLong(Range::start));
@@ -102,5 +79,20 @@ public final class FirewallRules implements Solver<Long> {
         // Allowed IPs = Total - Blocked
         return totalIPs - blocked;
     }
-}
 
+    /**
+     * Parses the blocked ranges straight from the mapped input bytes.
+     * The '-' between start and end is a separator, so the numbers are scanned as unsigned.
+     */
+    private List<Range> parseRanges(final String fileName) {
+        MappedResource resource = MappedResource.of(fileName);
+        List<Range> ranges = new ArrayList<>(resource.lineCount());
+        NumberScanner scanner = resource.scanner();
+        while (scanner.hasNext()) {
+            long start = scanner.nextUnsignedLong();
+            long end = scanner.nextUnsignedLong();
+            ranges.add(new Range(start, end));
+        }
+        return ranges;
+    }
+}
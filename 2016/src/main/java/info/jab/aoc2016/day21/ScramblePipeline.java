@@ -0,0 +1,370 @@
+package info.jab.aoc2016.day21;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+/**
+ * Scrambling operations compiled once for passwords of a given length.
+ *
+ * Every operation that only moves positions is a permutation, and runs of them are composed into a single
+ * int[] applied in one pass. Swapping letters only renames them, which commutes with moving positions, so all
+ * the swaps become one renaming table applied at the end; a later "rotate based on position of letter X" looks
+ * for the letter that is X once renamed. Such a rotation depends on where the letter is, so it is kept as a step
+ * with one precomputed permutation per index of the letter, already composed with the positions moved up to the
+ * next step.
+ *
+ * Unscrambling is compiled the same way from the inverse operations in reverse order. The rotation on a letter
+ * is undone with a table from its index after the rotation to its index before, only a bijection for some
+ * lengths (8 included); when several indexes fit, the lowest one is used.
+ */
+public final class ScramblePipeline {
+
+    private static final int MAX_PERMUTED_LENGTH = 20; // 20! still fits in a long
+
+    private final int length;
+    private final Program scramble;
+    private final Program unscramble;
+
+    private ScramblePipeline(int length, Program scramble, Program unscramble) {
+        this.length = length;
+        this.scramble = scramble;
+        this.unscramble = unscramble;
+    }
+
+    /**
+     * Compile the operations for passwords of the given length, blank lines are ignored
+     *
+     * @throws IllegalArgumentException if an operation is unknown or refers to a position out of the password
+     */
+    public static ScramblePipeline compile(List<String> operations, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Invalid password length: " + length);
+        }
+        List<Operation> parsed = operations.stream()
+            .filter(line -> !line.isBlank())
+            .map(Operation::parse)
+            .toList();
+
+        List<Lowered> forward = new ArrayList<>(parsed.size());
+        for (Operation operation : parsed) {
+            forward.add(lower(operation, length));
+        }
+        List<Lowered> backward = new ArrayList<>(parsed.size());
+        for (int i = forward.size() - 1; i >= 0; i--) {
+            backward.add(invert(forward.get(i), length));
+        }
+        return new ScramblePipeline(length, Program.compile(forward, length), Program.compile(backward, length));
+    }
+
+    public String scramble(String password) {
+        return scramble.run(chars(password));
+    }
+
+    public String unscramble(String scrambled) {
+        return unscramble.run(chars(scrambled));
+    }
+
+    /**
+     * Scramble every password, in parallel
+     */
+    public String[] scrambleAll(String[] passwords) {
+        String[] result = new String[passwords.length];
+        Arrays.parallelSetAll(result, i -> scramble(passwords[i]));
+        return result;
+    }
+
+    /**
+     * Unscramble every password, in parallel
+     */
+    public String[] unscrambleAll(String[] scrambled) {
+        String[] result = new String[scrambled.length];
+        Arrays.parallelSetAll(result, i -> unscramble(scrambled[i]));
+        return result;
+    }
+
+    /**
+     * Scramble and unscramble every permutation of the alphabet, in parallel
+     *
+     * @param alphabet Distinct letters, as many as the password length
+     * @return The number of permutations that do not come back unchanged, 0 when scrambling is invertible
+     */
+    public long roundTripFailures(String alphabet) {
+        char[] letters = chars(alphabet);
+        if (length > MAX_PERMUTED_LENGTH) {
+            throw new IllegalArgumentException("Too many permutations of " + length + " letters");
+        }
+        long permutations = 1;
+        for (int i = 2; i <= length; i++) {
+            permutations *= i;
+        }
+        return LongStream.range(0, permutations).parallel()
+            .filter(rank -> {
+                String password = permutation(letters, rank);
+                return !unscramble(scramble(password)).equals(password);
+            })
+            .count();
+    }
+
+    // The permutation of the given rank in the factorial number system
+    private static String permutation(char[] letters, long rank) {
+        char[] pool = letters.clone();
+        char[] result = new char[pool.length];
+        long factorial = 1;
+        for (int i = 2; i < pool.length; i++) {
+            factorial *= i;
+        }
+        int remaining = pool.length;
+        for (int i = 0; i < result.length; i++) {
+            int index = (int) (rank / factorial);
+            rank %= factorial;
+            result[i] = pool[index];
+            System.arraycopy(pool, index + 1, pool, index, remaining - index - 1);
+            remaining--;
+            if (remaining > 1) {
+                factorial /= remaining;
+            }
+        }
+        return new String(result);
+    }
+
+    private char[] chars(String password) {
+        if (password.length() != length) {
+            throw new IllegalArgumentException("Expected " + length + " letters: " + password);
+        }
+        return password.toCharArray();
+    }
+
+    /**
+     * One line of the scrambling function
+     */
+    private sealed interface Operation {
+        record SwapPosition(int x, int y) implements Operation {}
+        record SwapLetter(char x, char y) implements Operation {}
+        record Rotate(int right) implements Operation {}
+        record RotateOnLetter(char letter) implements Operation {}
+        record Reverse(int x, int y) implements Operation {}
+        record Move(int from, int to) implements Operation {}
+
+        static Operation parse(String line) {
+            String[] parts = line.trim().split(" ");
+            return switch (parts[0] + " " + parts[1]) {
+                case "swap position" -> new SwapPosition(Integer.parseInt(parts[2]), Integer.parseInt(parts[5]));
+                case "swap letter" -> new SwapLetter(parts[2].charAt(0), parts[5].charAt(0));
+                case "rotate left" -> new Rotate(-Integer.parseInt(parts[2]));
+                case "rotate right" -> new Rotate(Integer.parseInt(parts[2]));
+                case "rotate based" -> new RotateOnLetter(parts[6].charAt(0));
+                case "reverse positions" -> new Reverse(Integer.parseInt(parts[2]), Integer.parseInt(parts[4]));
+                case "move position" -> new Move(Integer.parseInt(parts[2]), Integer.parseInt(parts[5]));
+                default -> throw new IllegalArgumentException("Unknown operation: " + line);
+            };
+        }
+    }
+
+    /**
+     * Operations once the length is known: moved positions, renamed letters, or a rotation by the index of a
+     * letter. Permutations read new[i] = old[permutation[i]].
+     */
+    private sealed interface Lowered {
+        record Positions(int[] permutation) implements Lowered {}
+        record Letters(char x, char y) implements Lowered {}
+        record LetterRotation(char letter, int[] rightByIndex) implements Lowered {}
+    }
+
+    private static Lowered lower(Operation operation, int n) {
+        return switch (operation) {
+            case Operation.SwapPosition(int x, int y) -> {
+                int[] p = identity(n);
+                p[check(x, n)] = check(y, n);
+                p[y] = x;
+                yield new Lowered.Positions(p);
+            }
+            case Operation.SwapLetter(char x, char y) -> new Lowered.Letters(x, y);
+            case Operation.Rotate(int right) -> new Lowered.Positions(rotation(right, n));
+            case Operation.RotateOnLetter(char letter) -> {
+                int[] rightByIndex = new int[n];
+                for (int i = 0; i < n; i++) {
+                    rightByIndex[i] = (1 + i + (i >= 4 ? 1 : 0)) % n;
+                }
+                yield new Lowered.LetterRotation(letter, rightByIndex);
+            }
+            case Operation.Reverse(int x, int y) -> {
+                int[] p = identity(n);
+                check(x, n);
+                check(y, n);
+                for (int i = x; i <= y; i++) {
+                    p[i] = x + y - i;
+                }
+                yield new Lowered.Positions(p);
+            }
+            case Operation.Move(int from, int to) -> {
+                int[] p = identity(n);
+                check(from, n);
+                check(to, n);
+                for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+                    p[i] = from < to ? i + 1 : i - 1;
+                }
+                p[to] = from;
+                yield new Lowered.Positions(p);
+            }
+        };
+    }
+
+    private static Lowered invert(Lowered step, int n) {
+        return switch (step) {
+            case Lowered.Positions(int[] p) -> {
+                int[] inverse = new int[n];
+                for (int i = 0; i < n; i++) {
+                    inverse[p[i]] = i;
+                }
+                yield new Lowered.Positions(inverse);
+            }
+            case Lowered.Letters letters -> letters;
+            case Lowered.LetterRotation(char letter, int[] rightByIndex) -> {
+                // From the index after the rotation back to the lowest index that lands there, if any
+                int[] back = new int[n];
+                boolean[] known = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    int after = (i + rightByIndex[i]) % n;
+                    if (!known[after]) {
+                        known[after] = true;
+                        back[after] = (n - rightByIndex[i]) % n;
+                    }
+                }
+                yield new Lowered.LetterRotation(letter, back);
+            }
+        };
+    }
+
+    private static int check(int position, int n) {
+        if (position < 0 || position >= n) {
+            throw new IllegalArgumentException("Position " + position + " out of a password of " + n + " letters");
+        }
+        return position;
+    }
+
+    private static int[] identity(int n) {
+        int[] p = new int[n];
+        Arrays.setAll(p, i -> i);
+        return p;
+    }
+
+    private static int[] rotation(int right, int n) {
+        int shift = Math.floorMod(right, n);
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) {
+            p[i] = (i - shift + n) % n;
+        }
+        return p;
+    }
+
+    // first, then second
+    private static int[] compose(int[] first, int[] second) {
+        int[] p = new int[second.length];
+        for (int i = 0; i < p.length; i++) {
+            p[i] = first[second[i]];
+        }
+        return p;
+    }
+
+    /**
+     * A permutation, then for every step the permutation picked by the index of its letter, then the renaming
+     */
+    private record Program(int[] head, Step[] steps, char[] rename) {
+
+        private record Step(char letter, int[][] byIndex, int[] absent) {}
+
+        static Program compile(List<Lowered> lowered, int n) {
+            // renamed[raw] is the letter shown for a raw letter, raw[shown] the other way around
+            Map<Character, Character> renamed = new HashMap<>();
+            Map<Character, Character> raw = new HashMap<>();
+            int[] head = null;
+            List<Step> steps = new ArrayList<>();
+            Lowered.LetterRotation pending = null;
+            int[] segment = identity(n);
+            for (Lowered step : lowered) {
+                switch (step) {
+                    case Lowered.Positions(int[] p) -> segment = compose(segment, p);
+                    case Lowered.Letters(char x, char y) -> {
+                        char rawX = raw.getOrDefault(x, x);
+                        char rawY = raw.getOrDefault(y, y);
+                        renamed.put(rawX, y);
+                        renamed.put(rawY, x);
+                        raw.put(x, rawY);
+                        raw.put(y, rawX);
+                    }
+                    case Lowered.LetterRotation rotation -> {
+                        if (pending == null) {
+                            head = segment;
+                        } else {
+                            steps.add(step(pending, segment, n));
+                        }
+                        char letter = rotation.letter();
+                        pending = new Lowered.LetterRotation(raw.getOrDefault(letter, letter), rotation.rightByIndex());
+                        segment = identity(n);
+                    }
+                }
+            }
+            if (pending == null) {
+                head = segment;
+            } else {
+                steps.add(step(pending, segment, n));
+            }
+
+            char highest = 0;
+            for (char letter : renamed.keySet()) {
+                highest = (char) Math.max(highest, letter);
+            }
+            char[] rename = new char[renamed.isEmpty() ? 0 : highest + 1];
+            for (int c = 0; c < rename.length; c++) {
+                rename[c] = renamed.getOrDefault((char) c, (char) c);
+            }
+            return new Program(head, steps.toArray(Step[]::new), rename);
+        }
+
+        private static Step step(Lowered.LetterRotation rotation, int[] segment, int n) {
+            int[][] byIndex = new int[n][];
+            for (int i = 0; i < n; i++) {
+                byIndex[i] = compose(rotation(rotation.rightByIndex()[i], n), segment);
+            }
+            return new Step(rotation.letter(), byIndex, segment);
+        }
+
+        String run(char[] password) {
+            char[] current = new char[password.length];
+            char[] next = new char[password.length];
+            permute(head, password, current);
+            for (Step step : steps) {
+                int index = indexOf(current, step.letter());
+                permute(index < 0 ? step.absent() : step.byIndex()[index], current, next);
+                char[] swap = current;
+                current = next;
+                next = swap;
+            }
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] < rename.length) {
+                    current[i] = rename[current[i]];
+                }
+            }
+            return new String(current);
+        }
+
+        private static void permute(int[] permutation, char[] from, char[] to) {
+            for (int i = 0; i < permutation.length; i++) {
+                to[i] = from[permutation[i]];
+            }
+        }
+
+        private static int indexOf(char[] letters, char letter) {
+            for (int i = 0; i < letters.length; i++) {
+                if (letters[i] == letter) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
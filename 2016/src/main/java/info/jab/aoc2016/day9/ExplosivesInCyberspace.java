@@ -1,82 +1,212 @@
 package info.jab.aoc2016.day9;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-import com.putoet.resources.ResourceLines;
+import com.putoet.resources.MappedResource;
 
 import info.jab.aoc.Solver;
 
+/**
+ * Solver for Day 9: Explosives in Cyberspace
+ *
+ * The input is never decompressed, nor copied. A single pass over the mapped bytes keeps a stack of the
+ * markers whose data is still being read, as (end position, weight) frames, so every character adds the
+ * product of the enclosing repeat counts in O(1). Whitespace is ignored, positions count the other characters.
+ */
 public class ExplosivesInCyberspace implements Solver<Long> {
 
-    private static final Pattern MARKER_PATTERN = Pattern.compile("\\((\\d+)x(\\d+)\\)");
-
     @Override
     public Long solvePartOne(String fileName) {
-        var input = ResourceLines.line(fileName).replaceAll("\\s", ""); // Remove all whitespace
-        return calculateDecompressedLength(input, false);
+        return decompressedLength(MappedResource.of(fileName), false);
     }
 
     @Override
     public Long solvePartTwo(String fileName) {
-        var input = ResourceLines.line(fileName).replaceAll("\\s", ""); // Remove all whitespace
-        return calculateDecompressedLength(input, true);
+        return decompressedLength(MappedResource.of(fileName), true);
     }
 
     public long calculateDecompressedLength(String input, boolean recursive) {
-        long totalLength = 0;
-        int i = 0;
-
-        while (i < input.length()) {
-            if (input.charAt(i) == '(') {
-                // Find the end of the marker
-                int markerEnd = input.indexOf(')', i);
-                if (markerEnd == -1) {
-                    // No closing parenthesis found, treat as regular characters
-                    totalLength += input.length() - i;
-                    break;
-                }
+        return decompressedLength(MappedResource.of(input.getBytes(StandardCharsets.ISO_8859_1)), recursive);
+    }
+
+    /**
+     * The decompressed length of the input
+     *
+     * A marker that does not parse, or whose data runs past the data of the enclosing marker or past the end of
+     * the input, is read as plain characters.
+     *
+     * @param input The compressed data
+     * @param recursive Expand markers found in repeated data too (part two)
+     * @return The decompressed length, whitespace excluded
+     * @throws ArithmeticException if the length does not fit in a long
+     */
+    static long decompressedLength(MappedResource input, boolean recursive) {
+        return new Scanner(input, recursive).scan();
+    }
 
-                String marker = input.substring(i, markerEnd + 1);
-                Matcher matcher = MARKER_PATTERN.matcher(marker);
-
-                if (matcher.matches()) {
-                    int length = Integer.parseInt(matcher.group(1));
-                    int repeat = Integer.parseInt(matcher.group(2));
-
-                    int dataStart = markerEnd + 1;
-                    int dataEnd = dataStart + length;
-
-                    if (dataEnd <= input.length()) {
-                        String data = input.substring(dataStart, dataEnd);
-
-                        if (recursive) {
-                            // For part 2, recursively calculate the length of the data
-                            long dataLength = calculateDecompressedLength(data, true);
-                            totalLength += dataLength * repeat;
-                        } else {
-                            // For part 1, just multiply the raw data length
-                            totalLength += (long) data.length() * repeat;
-                        }
-
-                        i = dataEnd;
-                    } else {
-                        // Not enough data after the marker, treat as regular character
-                        totalLength++;
-                        i++;
+    private static final class Scanner {
+        private static final long NO_NUMBER = -1;
+        private static final long OUT_OF_RANGE = Integer.MAX_VALUE + 1L;
+
+        private final MappedResource input;
+        private final boolean recursive;
+        private final int size;
+
+        private int offset;
+        private long position;
+        private long total;
+
+        // Open markers: their data ends before ends[i], every character in it counts weights[i] times
+        private long[] ends = new long[16];
+        private long[] weights = new long[16];
+        private int depth;
+
+        // The outermost open marker is only known to fit at the end of the input, if not it is read again as text
+        private int markerOffset;
+        private long markerPosition;
+        private long markerTotal;
+        private int literalOffset = -1;
+
+        // Last parsed marker
+        private long length;
+        private long repeat;
+
+        Scanner(MappedResource input, boolean recursive) {
+            this.input = input;
+            this.recursive = recursive;
+            this.size = input.size();
+        }
+
+        long scan() {
+            while (true) {
+                while (depth > 0 && ends[depth - 1] <= position) {
+                    depth--;
+                }
+                if (offset == size) {
+                    if (depth == 0) {
+                        return total;
                     }
-                } else {
-                    // Invalid marker format, treat as regular character
-                    totalLength++;
-                    i++;
+                    offset = markerOffset;
+                    position = markerPosition;
+                    total = markerTotal;
+                    depth = 0;
+                    literalOffset = markerOffset;
+                    continue;
+                }
+
+                byte b = input.byteAt(offset);
+                if (isWhitespace(b)) {
+                    offset++;
+                    continue;
+                }
+                long weight = depth == 0 ? 1 : weights[depth - 1];
+                // Markers in data that is skipped (part one) or repeated zero times cannot change the length
+                if (b == '(' && weight != 0 && offset != literalOffset && openMarker(weight)) {
+                    continue;
                 }
+                total = Math.addExact(total, weight);
+                position++;
+                offset++;
+            }
+        }
+
+        /**
+         * Parse the marker at the current offset and push its frame
+         *
+         * @return false, leaving the scanner untouched, if it is not a marker
+         */
+        private boolean openMarker(long weight) {
+            long limit = depth == 0 ? Long.MAX_VALUE : ends[depth - 1];
+            int start = offset;
+            long startPosition = position;
+            if (!parseMarker(limit)) {
+                offset = start;
+                position = startPosition;
+                return false;
+            }
+            long end = position + length;
+            if (end > limit) {
+                offset = start;
+                position = startPosition;
+                return false;
+            }
+
+            if (depth == 0) {
+                markerOffset = start;
+                markerPosition = startPosition;
+                markerTotal = total;
+            }
+            if (depth == ends.length) {
+                ends = Arrays.copyOf(ends, depth * 2);
+                weights = Arrays.copyOf(weights, depth * 2);
+            }
+            ends[depth] = end;
+            if (recursive) {
+                weights[depth] = Math.multiplyExact(weight, repeat);
             } else {
-                // Regular character
-                totalLength++;
-                i++;
+                // The data is counted at once and skipped
+                weights[depth] = 0;
+                total = Math.addExact(total, Math.multiplyExact(length, repeat));
+            }
+            depth++;
+            return true;
+        }
+
+        // (<length>x<repeat>), ending no later than the limit
+        private boolean parseMarker(long limit) {
+            int start = offset;
+            if (next(limit) != '(') {
+                return false;
+            }
+            length = number(limit);
+            if (length == NO_NUMBER || next(limit) != 'x') {
+                return false;
+            }
+            repeat = number(limit);
+            if (repeat == NO_NUMBER || next(limit) != ')') {
+                return false;
+            }
+            // Only a complete marker can be out of range, anything else is text
+            if (length > Integer.MAX_VALUE || repeat > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Marker value out of range at offset " + start);
+            }
+            return true;
+        }
+
+        // The digits saturate above the int range, so a long run of them cannot overflow
+        private long number(long limit) {
+            long value = NO_NUMBER;
+            while (true) {
+                int b = peek(limit);
+                if (b < '0' || b > '9') {
+                    return value;
+                }
+                next(limit);
+                value = Math.min(Math.max(value, 0) * 10 + (b - '0'), OUT_OF_RANGE);
+            }
+        }
+
+        private int next(long limit) {
+            int b = peek(limit);
+            if (b >= 0) {
+                position++;
+                offset++;
             }
+            return b;
         }
 
-        return totalLength;
+        // The next character, skipping whitespace, or -1 at the limit or at the end of the input
+        private int peek(long limit) {
+            while (offset < size && isWhitespace(input.byteAt(offset))) {
+                offset++;
+            }
+            return offset == size || position >= limit ? -1 : input.byteAt(offset) & 0xFF;
+        }
+
+        // As in \s
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || (b >= '\t' && b <= '\r');
+        }
     }
 }
@@ -0,0 +1,66 @@
+package info.jab.aoc2016.assembunny;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AssembunnyProgramTest {
+
+    @Test
+    void should_run_day12_sample() {
+        //Given
+        var program = AssembunnyProgram.parse(List.of(
+                "cpy 41 a", "inc a", "inc a", "dec a", "jnz a 2", "dec a"));
+
+        //When
+        var registers = program.run(new int[4]);
+
+        //Then
+        then(registers[0]).isEqualTo(42);
+    }
+
+    @Test
+    void should_toggle_instructions_in_place() {
+        //Given
+        var program = AssembunnyProgram.parse(List.of(
+                "cpy 2 a", "tgl a", "tgl a", "tgl a", "cpy 1 a", "dec a", "dec a"));
+
+        //When
+        var registers = program.run(new int[4]);
+
+        //Then
+        then(registers[0]).isEqualTo(3);
+    }
+
+    @Test
+    void should_fuse_add_and_multiply_loops() {
+        //Given
+        var program = AssembunnyProgram.parse(List.of(
+                "cpy 1000 b", "cpy 3000 d",
+                "cpy b c", "inc a", "dec c", "jnz c -2", "dec d", "jnz d -5",
+                "cpy 500 c", "dec c", "inc b", "jnz c -2"));
+
+        //When
+        var registers = program.run(new int[4]);
+
+        //Then
+        then(program.fusedOperations()).isEqualTo(3);
+        then(registers).containsExactly(3_000_000, 1500, 0, 0);
+        then(program.steps()).isEqualTo(5);
+    }
+
+    @Test
+    void should_match_looped_result_with_negative_counter() {
+        //Given
+        var program = AssembunnyProgram.parse(List.of("cpy -3 b", "inc a", "dec b", "jnz b -2"));
+
+        //When
+        var registers = program.run(new int[4]);
+
+        //Then
+        then(registers[0]).isEqualTo(-3);
+        then(registers[1]).isZero();
+    }
+}
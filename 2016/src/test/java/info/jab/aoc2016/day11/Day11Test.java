@@ -31,4 +31,37 @@ class Day11Test {
         //Then
         then(result).isEqualTo(61);
     }
+
+    @Test
+    void should_solve_puzzle_sample_in_both_search_modes() {
+        //Given
+        var state = new RTGState()
+            .addItem(0, "hydrogen", ItemType.MICROCHIP)
+            .addItem(0, "lithium", ItemType.MICROCHIP)
+            .addItem(1, "hydrogen", ItemType.GENERATOR)
+            .addItem(2, "lithium", ItemType.GENERATOR);
+
+        //When
+        var bidirectional = PackedState.minimumSteps(state.encode(), PackedState.goal(2), 2, true);
+        var forward = PackedState.minimumSteps(state.encode(), PackedState.goal(2), 2, false);
+
+        //Then
+        then(bidirectional).isEqualTo(11);
+        then(forward).isEqualTo(11);
+    }
+
+    @Test
+    void should_scale_to_ten_pairs() {
+        //Given
+        var state = new RTGState();
+        for (int i = 0; i < 10; i++) {
+            state = state.addItem(0, "element" + i, ItemType.GENERATOR).addItem(0, "element" + i, ItemType.MICROCHIP);
+        }
+
+        //When
+        var result = PackedState.minimumSteps(state.encode(), PackedState.goal(10), 10, true);
+
+        //Then
+        then(result).isEqualTo(111);
+    }
 }
@@ -5,6 +5,32 @@ import org.junit.jupiter.api.Test;
 
 class Day14Test {
 
+    @Test
+    void should_solve_day14_part1_sample() {
+        //Given
+        String fileName = "/day14/day14-input-sample.txt";
+
+        //When
+        var day = new Day14();
+        var result = day.getPart1Result(fileName);
+
+        //Then
+        then(result).isEqualTo(22728);
+    }
+
+    @Test
+    void should_solve_day14_part2_sample() {
+        //Given
+        String fileName = "/day14/day14-input-sample.txt";
+
+        //When
+        var day = new Day14();
+        var result = day.getPart2Result(fileName);
+
+        //Then
+        then(result).isEqualTo(22551);
+    }
+
     @Test
     void should_solve_day14_part1() {
         //Given
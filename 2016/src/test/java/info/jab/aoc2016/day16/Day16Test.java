@@ -31,4 +31,27 @@ class Day16Test {
         then(result).isEqualTo("01100100101101100");
     }
 
+    @Test
+    void should_compute_sample_checksum() {
+        //Given
+        String seed = "10000";
+
+        //When
+        var result = DragonChecksum.checksum(seed, 20);
+
+        //Then
+        then(result).isEqualTo("01100");
+    }
+
+    @Test
+    void should_stream_checksum_of_disks_with_billions_of_bits() {
+        //Given
+        String seed = "00101000101111010";
+
+        //When
+        var result = DragonChecksum.checksum(seed, 17L << 34);
+
+        //Then
+        then(result).isEqualTo("00010100000011100");
+    }
 }
@@ -6,6 +6,32 @@ import org.junit.jupiter.api.Test;
 
 class Day17Test {
 
+    @Test
+    void should_solve_day17_part1_sample() {
+        //Given
+        String fileName = "/day17/day17-input-sample.txt";
+
+        //When
+        var day = new Day17();
+        var result = day.getPart1Result(fileName);
+
+        //Then
+        then(result).isEqualTo("DRURDRUDDLLDLUURRDULRLDUUDDDRR");
+    }
+
+    @Test
+    void should_solve_day17_part2_sample() {
+        //Given
+        String fileName = "/day17/day17-input-sample.txt";
+
+        //When
+        var day = new Day17();
+        var result = day.getPart2Result(fileName);
+
+        //Then
+        then(result).isEqualTo("830");
+    }
+
     @Test
     void should_solve_day17_part1() {
         //Given
@@ -31,4 +31,28 @@ class Day18Test {
         //Then
         then(result).isEqualTo(19995121);
     }
+
+    @Test
+    void should_count_sample_rows() {
+        //Given
+        var rows = new TrapRows(".^^.^.^^^^");
+
+        //When
+        var result = rows.countSafe(10);
+
+        //Then
+        then(result).isEqualTo(38L);
+    }
+
+    @Test
+    void should_skip_repeated_rows_with_cycle_detection() {
+        //Given
+        var rows = new TrapRows("^.^^.....^^^.^");
+
+        //When
+        var result = rows.countSafe(1_000_000_000_000L);
+
+        //Then
+        then(result).isEqualTo(7_133_333_333_335L);
+    }
 }
@@ -1,6 +1,8 @@
 package info.jab.aoc2016.day21;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import com.putoet.resources.ResourceLines;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class Day21Test {
@@ -31,4 +33,37 @@ class Day21Test {
         then(result).isEqualTo("egcdahbf");
     }
 
+    @Test
+    void should_scramble_sample() {
+        //Given
+        var operations = List.of(
+            "swap position 4 with position 0",
+            "swap letter d with letter b",
+            "reverse positions 0 through 4",
+            "rotate left 1 step",
+            "move position 1 to position 4",
+            "move position 3 to position 0",
+            "rotate based on position of letter b",
+            "rotate based on position of letter d");
+
+        //When
+        var result = ScramblePipeline.compile(operations, 5).scramble("abcde");
+
+        //Then
+        then(result).isEqualTo("decab");
+    }
+
+    @Test
+    void should_unscramble_every_permutation_of_eight_letters() {
+        //Given
+        var pipeline = ScramblePipeline.compile(ResourceLines.list("/day21/day21-input.txt"), 8);
+
+        //When
+        var failures = pipeline.roundTripFailures("abcdefgh");
+        var unscrambled = pipeline.unscrambleAll(pipeline.scrambleAll(new String[] {"abcdefgh", "hgfedcba"}));
+
+        //Then
+        then(failures).isZero();
+        then(unscrambled).containsExactly("abcdefgh", "hgfedcba");
+    }
 }
@@ -31,4 +31,46 @@ class Day9Test {
         //Then
         then(result).isEqualTo(10780403063L);
     }
+
+    @Test
+    void should_weight_nested_markers_and_ignore_whitespace() {
+        //Given
+        var input = "(25x3)(3x3)ABC(2x3)XY(5x2)PQRSTX(18x9)(3x2)TWO(5x7)SEVEN\n(27x12)(20x12)(13x14)(7x10)(1x12)A";
+
+        //When
+        var solver = new ExplosivesInCyberspace();
+        var version1 = solver.calculateDecompressedLength(input, false);
+        var version2 = solver.calculateDecompressedLength(input, true);
+
+        //Then
+        then(version1).isEqualTo(238L + 324L);
+        then(version2).isEqualTo(445L + 241920L);
+    }
+
+    @Test
+    void should_read_markers_past_the_end_as_text() {
+        //Given
+        var input = "X(8x2)(3x3)AB";
+
+        //When
+        var result = new ExplosivesInCyberspace().calculateDecompressedLength(input, true);
+
+        //Then
+        then(result).isEqualTo(13L);
+    }
+
+    @Test
+    void should_read_out_of_range_numbers_outside_markers_as_text() {
+        //Given
+        var input = "8(2170275063(10x0)81";
+
+        //When
+        var solver = new ExplosivesInCyberspace();
+        var version1 = solver.calculateDecompressedLength(input, false);
+        var version2 = solver.calculateDecompressedLength(input, true);
+
+        //Then
+        then(version1).isEqualTo(20L);
+        then(version2).isEqualTo(20L);
+    }
 }
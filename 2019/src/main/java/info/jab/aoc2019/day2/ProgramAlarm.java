@@ -1,7 +1,7 @@
 package info.jab.aoc2019.day2;
 
 import com.putoet.resources.ResourceLines;
-import java.util.ArrayList;
+import info.jab.aoc2019.intcode.IntcodeComputer;
 import java.util.List;
 
 /**
@@ -103,60 +103,43 @@ import java.util.List;
 public class ProgramAlarm {
 
     private static final String FUEL_INPUT_FILE = "/day2/input.txt";
+    private static final long EXPECTED_OUTPUT = 19690720L;
+    private static final int MAX_VALUE = 99;
 
     private final String readInputFile = ResourceLines.line(FUEL_INPUT_FILE);
 
-    //Original idea from: Oliver Weiler
-    // Converted from tailrec to iterative approach (equivalent to trampoline pattern)
-    // This avoids stack overflow and matches the behavior of Kotlin's tailrec optimization
     public List<Integer> compute(List<Integer> positions, int start) {
-        int current = start;
-
-        while (current < positions.size()) {
-            ParserStates state = ParserStates.fromInt(positions.get(current));
-
-            switch (state) {
-                case SUM:
-                    positions.set(positions.get(current + 3),
-                            positions.get(positions.get(current + 1)) + positions.get(positions.get(current + 2)));
-                    current += 4;
-                    break;
-                case MULTIPLY:
-                    positions.set(positions.get(current + 3),
-                            positions.get(positions.get(current + 1)) * positions.get(positions.get(current + 2)));
-                    current += 4;
-                    break;
-                case HALT:
-                    return positions;
-                default:
-                    throw new AssertionError("Unknown opcode");
-            }
+        final long[] memory = positions.stream().mapToLong(Integer::longValue).toArray();
+        final IntcodeComputer computer = new IntcodeComputer(memory);
+        computer.jumpTo(start);
+        final long[] result = computer.run().memory();
+        for (int i = 0; i < positions.size(); i++) {
+            positions.set(i, Math.toIntExact(result[i]));
         }
-
         return positions;
     }
 
     public int getPosition0() {
-        List<Integer> data = new ArrayList<>(
-                java.util.Arrays.stream(readInputFile.split(","))
-                        .map(Integer::parseInt)
-                        .toList());
+        return Math.toIntExact(runWith(IntcodeComputer.of(readInputFile), 12, 2));
+    }
 
-        List<Integer> modified = new ArrayList<>();
-        for (int i = 0; i < data.size(); i++) {
-            modified.add(switch (i) {
-                case 1 -> 12;
-                case 2 -> 2;
-                default -> data.get(i);
-            });
+    public int getPair() {
+        // Every candidate forks the loaded program instead of parsing the input again
+        final IntcodeComputer program = IntcodeComputer.of(readInputFile);
+        for (int noun = 0; noun <= MAX_VALUE; noun++) {
+            for (int verb = 0; verb <= MAX_VALUE; verb++) {
+                if (runWith(program, noun, verb) == EXPECTED_OUTPUT) {
+                    return 100 * noun + verb;
+                }
+            }
         }
-
-        List<Integer> result = compute(new ArrayList<>(modified), 0);
-        return result.get(0);
+        throw new IllegalStateException("No noun and verb produce " + EXPECTED_OUTPUT);
     }
 
-    public int getPair() {
-        return 0;
+    private long runWith(IntcodeComputer program, int noun, int verb) {
+        final IntcodeComputer computer = program.copy();
+        computer.write(1, noun);
+        computer.write(2, verb);
+        return computer.run().read(0);
     }
 }
-
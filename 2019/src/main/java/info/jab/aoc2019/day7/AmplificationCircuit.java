@@ -1,5 +1,9 @@
 package info.jab.aoc2019.day7;
 
+import com.putoet.resources.ResourceLines;
+import info.jab.aoc2019.intcode.AmplifierPipeline;
+import info.jab.aoc2019.intcode.IntcodeComputer;
+
 /**
  * --- Day 7: Amplification Circuit ---
  * Based on the navigational maps, you're going to need to send more power to your ship's thrusters to reach Santa in time.
@@ -71,8 +75,31 @@ package info.jab.aoc2019.day7;
  */
 public class AmplificationCircuit {
 
+    private static final String INPUT_FILE = "/day7/input.txt";
+    private static final int[] PHASES = {0, 1, 2, 3, 4};
+    private static final int[] FEEDBACK_PHASES = {5, 6, 7, 8, 9};
+
+    private final AmplifierPipeline pipeline;
+
+    public AmplificationCircuit() {
+        this(ResourceLines.line(INPUT_FILE));
+    }
+
+    public AmplificationCircuit(String program) {
+        this.pipeline = new AmplifierPipeline(IntcodeComputer.parse(program));
+    }
+
     public long getMaxSign() {
-        return 0L;
+        return pipeline.maxSignal(PHASES, false);
+    }
+
+    /**
+     * --- Part Two ---
+     * The amplifiers are connected in a feedback loop, E's output goes back to A,
+     * using phase settings 5 to 9 until all amplifiers halt.
+     */
+    public long getMaxFeedbackSign() {
+        return pipeline.maxSignal(FEEDBACK_PHASES, true);
     }
 }
 
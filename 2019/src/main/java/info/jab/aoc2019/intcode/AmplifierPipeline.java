@@ -0,0 +1,160 @@
+package info.jab.aoc2019.intcode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a chain of Intcode computers, one per phase setting, each on its own virtual thread.
+ * Computer i reads from port i and writes to port i + 1, ports are bounded blocking queues.
+ * In feedback mode the last computer writes back into port 0, and the signal sent to the thrusters
+ * is the last value left there once every computer has halted.
+ */
+public final class AmplifierPipeline {
+
+    private static final int PORT_CAPACITY = 16;
+
+    private final long[] program;
+
+    public AmplifierPipeline(long[] program) {
+        this.program = program.clone();
+    }
+
+    /**
+     * Run the chain once for a phase sequence with input signal 0
+     *
+     * @param phases The phase setting of every amplifier
+     * @param feedback Whether the last amplifier feeds the first one
+     * @return The signal sent to the thrusters
+     */
+    public long run(int[] phases, boolean feedback) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return run(phases, feedback, executor);
+        }
+    }
+
+    /**
+     * Evaluate every permutation of the phases concurrently
+     *
+     * @param phases The phase settings to permute
+     * @param feedback Whether the last amplifier feeds the first one
+     * @return The highest signal sent to the thrusters
+     */
+    public long maxSignal(int[] phases, boolean feedback) {
+        final List<int[]> permutations = permutations(phases);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Long>> signals = new ArrayList<>(permutations.size());
+            // Every permutation runs its amplifiers in its own executor, a failing one cannot block the others
+            for (int[] permutation : permutations) {
+                signals.add(executor.submit(() -> run(permutation, feedback)));
+            }
+            try {
+                long max = Long.MIN_VALUE;
+                for (Future<Long> signal : signals) {
+                    max = Math.max(max, await(signal));
+                }
+                return max;
+            } catch (RuntimeException e) {
+                cancel(signals);
+                throw e;
+            }
+        }
+    }
+
+    private long run(int[] phases, boolean feedback, ExecutorService executor) {
+        final int amplifiers = phases.length;
+        final List<BlockingQueue<Long>> ports = new ArrayList<>(amplifiers + 1);
+        for (int i = 0; i <= amplifiers; i++) {
+            ports.add(new ArrayBlockingQueue<>(PORT_CAPACITY));
+        }
+        for (int i = 0; i < amplifiers; i++) {
+            ports.get(i).add((long) phases[i]);
+        }
+        ports.get(0).add(0L);
+
+        final CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        final List<Future<Void>> running = new ArrayList<>(amplifiers);
+        for (int i = 0; i < amplifiers; i++) {
+            final BlockingQueue<Long> input = ports.get(i);
+            final BlockingQueue<Long> output = feedback && i == amplifiers - 1 ? ports.get(0) : ports.get(i + 1);
+            final IntcodeComputer computer = new IntcodeComputer(program);
+            running.add(completion.submit(() -> {
+                computer.run(input, output);
+                return null;
+            }));
+        }
+        // Awaited in completion order, so the first failure is seen even while the others wait on their ports
+        try {
+            for (int i = 0; i < amplifiers; i++) {
+                await(completion.take());
+            }
+        } catch (InterruptedException e) {
+            cancel(running);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the amplifiers", e);
+        } catch (RuntimeException e) {
+            // The other amplifiers would wait forever on their ports, and so would the executor when closed
+            cancel(running);
+            throw e;
+        }
+
+        final BlockingQueue<Long> thrusters = feedback ? ports.get(0) : ports.get(amplifiers);
+        Long signal = null;
+        for (Long value : thrusters) {
+            signal = value;
+        }
+        if (signal == null) {
+            throw new IllegalStateException("No signal reached the thrusters");
+        }
+        return signal;
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the amplifiers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Amplifier failed", e.getCause());
+        }
+    }
+
+    static List<int[]> permutations(int[] values) {
+        final List<int[]> result = new ArrayList<>();
+        permute(values.clone(), 0, result);
+        return result;
+    }
+
+    // In-place swapping, position k takes every remaining value once
+    private static void permute(int[] values, int k, List<int[]> result) {
+        if (k == values.length) {
+            result.add(values.clone());
+            return;
+        }
+        for (int i = k; i < values.length; i++) {
+            swap(values, k, i);
+            permute(values, k + 1, result);
+            swap(values, k, i);
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        final int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
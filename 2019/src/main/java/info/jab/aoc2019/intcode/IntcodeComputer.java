@@ -0,0 +1,240 @@
+package info.jab.aoc2019.intcode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Intcode virtual machine shared by the 2019 puzzles.
+ *
+ * Memory is a long[] that grows on demand when an address beyond its end is written.
+ * Reads beyond the end return 0. Supported instructions:
+ * - 1 add, 2 multiply, 3 input, 4 output
+ * - 5 jump-if-true, 6 jump-if-false, 7 less than, 8 equals
+ * - 9 adjust relative base, 99 halt
+ * Parameters may be in position (0), immediate (1) or relative (2) mode.
+ *
+ * Input and output are blocking queues, so several computers can be wired together, each on its own thread.
+ * A computer can be forked with copy(), which is cheaper than parsing the program again.
+ */
+public final class IntcodeComputer {
+
+    private static final int ADD = 1;
+    private static final int MULTIPLY = 2;
+    private static final int INPUT = 3;
+    private static final int OUTPUT = 4;
+    private static final int JUMP_IF_TRUE = 5;
+    private static final int JUMP_IF_FALSE = 6;
+    private static final int LESS_THAN = 7;
+    private static final int EQUALS = 8;
+    private static final int ADJUST_BASE = 9;
+    private static final int HALT = 99;
+
+    private static final int POSITION = 0;
+    private static final int IMMEDIATE = 1;
+    private static final int RELATIVE = 2;
+
+    private long[] memory;
+    private int ip;
+    private long relativeBase;
+    private boolean halted;
+
+    private IntcodeComputer(long[] memory, int ip, long relativeBase, boolean halted) {
+        this.memory = memory;
+        this.ip = ip;
+        this.relativeBase = relativeBase;
+        this.halted = halted;
+    }
+
+    /**
+     * Load a program, the computer gets its own copy of the memory
+     *
+     * @param program The initial memory
+     */
+    public IntcodeComputer(long[] program) {
+        this(program.clone(), 0, 0, false);
+    }
+
+    /**
+     * Parse a comma separated Intcode program
+     *
+     * @param source The program source, for example 1,0,0,3,99
+     * @return The initial memory
+     */
+    public static long[] parse(String source) {
+        return Arrays.stream(source.trim().split(","))
+                .map(String::trim)
+                .mapToLong(Long::parseLong)
+                .toArray();
+    }
+
+    public static IntcodeComputer of(String source) {
+        return new IntcodeComputer(parse(source));
+    }
+
+    /**
+     * Fork this computer: memory, instruction pointer and relative base are copied
+     *
+     * @return An independent snapshot
+     */
+    public IntcodeComputer copy() {
+        return new IntcodeComputer(memory.clone(), ip, relativeBase, halted);
+    }
+
+    public long read(long address) {
+        checkAddress(address);
+        return address < memory.length ? memory[(int) address] : 0L;
+    }
+
+    public void write(long address, long value) {
+        checkAddress(address);
+        ensureCapacity((int) address);
+        memory[(int) address] = value;
+    }
+
+    /**
+     * Move the instruction pointer, for programs that do not start at address 0
+     *
+     * @param address The address of the next instruction
+     */
+    public void jumpTo(int address) {
+        checkAddress(address);
+        this.ip = address;
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * The memory, including the zero filled addresses added when it grew
+     *
+     * @return A copy of the memory
+     */
+    public long[] memory() {
+        return memory.clone();
+    }
+
+    /**
+     * Run a program that uses no input and output until it halts
+     *
+     * @return This computer
+     */
+    public IntcodeComputer run() {
+        run(List.of());
+        return this;
+    }
+
+    /**
+     * Run until the program halts with a fixed list of inputs
+     *
+     * @param inputs The values returned by the input instructions, in order
+     * @return The produced outputs
+     * @throws IllegalStateException if the program asks for more input than given
+     */
+    public List<Long> run(List<Long> inputs) {
+        final BlockingQueue<Long> input = new LinkedBlockingQueue<>(inputs);
+        final BlockingQueue<Long> output = new LinkedBlockingQueue<>();
+        try {
+            execute(input, output, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running Intcode program", e);
+        }
+        return new ArrayList<>(output);
+    }
+
+    /**
+     * Run until the program halts, blocking on the input port when it is empty
+     *
+     * @param input The input port
+     * @param output The output port
+     * @throws InterruptedException if the thread is interrupted while waiting for a port
+     */
+    public void run(BlockingQueue<Long> input, BlockingQueue<Long> output) throws InterruptedException {
+        execute(input, output, true);
+    }
+
+    private void execute(BlockingQueue<Long> input, BlockingQueue<Long> output, boolean blocking)
+            throws InterruptedException {
+        while (!halted) {
+            final int instruction = (int) read(ip);
+            final int opcode = instruction % 100;
+            final int mode1 = instruction / 100 % 10;
+            final int mode2 = instruction / 1_000 % 10;
+            final int mode3 = instruction / 10_000 % 10;
+
+            switch (opcode) {
+                case ADD -> {
+                    write(address(3, mode3), parameter(1, mode1) + parameter(2, mode2));
+                    ip += 4;
+                }
+                case MULTIPLY -> {
+                    write(address(3, mode3), parameter(1, mode1) * parameter(2, mode2));
+                    ip += 4;
+                }
+                case INPUT -> {
+                    final Long value = blocking ? input.take() : input.poll();
+                    if (value == null) {
+                        throw new IllegalStateException("No input available at address " + ip);
+                    }
+                    write(address(1, mode1), value);
+                    ip += 2;
+                }
+                case OUTPUT -> {
+                    output.put(parameter(1, mode1));
+                    ip += 2;
+                }
+                case JUMP_IF_TRUE -> ip = parameter(1, mode1) != 0 ? Math.toIntExact(parameter(2, mode2)) : ip + 3;
+                case JUMP_IF_FALSE -> ip = parameter(1, mode1) == 0 ? Math.toIntExact(parameter(2, mode2)) : ip + 3;
+                case LESS_THAN -> {
+                    write(address(3, mode3), parameter(1, mode1) < parameter(2, mode2) ? 1 : 0);
+                    ip += 4;
+                }
+                case EQUALS -> {
+                    write(address(3, mode3), parameter(1, mode1) == parameter(2, mode2) ? 1 : 0);
+                    ip += 4;
+                }
+                case ADJUST_BASE -> {
+                    relativeBase += parameter(1, mode1);
+                    ip += 2;
+                }
+                case HALT -> halted = true;
+                default -> throw new IllegalStateException("Unknown opcode " + instruction + " at address " + ip);
+            }
+        }
+    }
+
+    private long parameter(int offset, int mode) {
+        final long raw = read(ip + offset);
+        return switch (mode) {
+            case POSITION -> read(raw);
+            case IMMEDIATE -> raw;
+            case RELATIVE -> read(relativeBase + raw);
+            default -> throw new IllegalStateException("Unknown parameter mode " + mode + " at address " + ip);
+        };
+    }
+
+    private long address(int offset, int mode) {
+        final long raw = read(ip + offset);
+        return switch (mode) {
+            case POSITION -> raw;
+            case RELATIVE -> relativeBase + raw;
+            default -> throw new IllegalStateException("Invalid write parameter mode " + mode + " at address " + ip);
+        };
+    }
+
+    private void checkAddress(long address) {
+        if (address < 0 || address > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Invalid address " + address);
+        }
+    }
+
+    private void ensureCapacity(int address) {
+        if (address >= memory.length) {
+            memory = Arrays.copyOf(memory, Math.max(address + 1, memory.length * 2));
+        }
+    }
+}
@@ -39,5 +39,15 @@ class ProgramAlarmTest {
         then(result).isEqualTo(3058646);
     }
 
-}
+    @Test
+    void should_get_noun_verb_pair() {
+        //Given
+        ProgramAlarm program = new ProgramAlarm();
 
+        //When
+        int result = program.getPair();
+
+        //Then
+        then(result).isEqualTo(8976);
+    }
+}
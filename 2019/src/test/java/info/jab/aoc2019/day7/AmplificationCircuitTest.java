@@ -6,6 +6,14 @@ import org.junit.jupiter.api.Test;
 
 class AmplificationCircuitTest {
 
+    @Test
+    void should_get_max_signal_for_examples() {
+        then(new AmplificationCircuit("3,15,3,16,1002,16,10,16,1,16,15,15,4,15,99,0,0").getMaxSign())
+                .isEqualTo(43210L);
+        then(new AmplificationCircuit("3,23,3,24,1002,24,10,24,1002,23,-1,23,101,5,23,23,1,24,23,23,4,23,99,0,0")
+                .getMaxSign()).isEqualTo(54321L);
+    }
+
     @Test
     void should_get_max_signal() {
         //Given
@@ -15,7 +23,31 @@ class AmplificationCircuitTest {
         long result = amplificationCircuit.getMaxSign();
 
         //Then
-        then(result).isEqualTo(0L);
+        then(result).isEqualTo(19650L);
     }
-}
 
+    @Test
+    void should_get_max_feedback_signal_for_example() {
+        //Given
+        AmplificationCircuit amplificationCircuit = new AmplificationCircuit(
+                "3,26,1001,26,-4,26,3,27,1002,27,2,27,1,27,26,27,4,27,1001,28,-1,28,1005,28,6,99,0,0,5");
+
+        //When
+        long result = amplificationCircuit.getMaxFeedbackSign();
+
+        //Then
+        then(result).isEqualTo(139629729L);
+    }
+
+    @Test
+    void should_get_max_feedback_signal() {
+        //Given
+        AmplificationCircuit amplificationCircuit = new AmplificationCircuit();
+
+        //When
+        long result = amplificationCircuit.getMaxFeedbackSign();
+
+        //Then
+        then(result).isEqualTo(35961106L);
+    }
+}
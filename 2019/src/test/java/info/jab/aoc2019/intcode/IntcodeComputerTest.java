@@ -0,0 +1,88 @@
+package info.jab.aoc2019.intcode;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import com.putoet.resources.ResourceLines;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class IntcodeComputerTest {
+
+    @Test
+    void should_support_relative_mode_and_growing_memory() {
+        //Given
+        String quine = "109,1,204,-1,1001,100,1,100,1008,100,16,101,1006,101,0,99";
+
+        IntcodeComputer computer = IntcodeComputer.of(quine);
+
+        //When
+        List<Long> result = computer.run(List.of());
+
+        //Then
+        then(result).containsExactlyElementsOf(Arrays.stream(IntcodeComputer.parse(quine)).boxed().toList());
+        then(computer.read(100)).isEqualTo(16L);
+    }
+
+    @Test
+    void should_support_large_numbers() {
+        then(IntcodeComputer.of("104,1125899906842624,99").run(List.of())).containsExactly(1125899906842624L);
+        then(IntcodeComputer.of("1102,34915192,34915192,7,4,7,99,0").run(List.of())).containsExactly(1219070632396864L);
+    }
+
+    @Test
+    void should_run_diagnostic_program() {
+        //Given
+        IntcodeComputer computer = IntcodeComputer.of(ResourceLines.line("/day5/input.txt"));
+
+        //When
+        List<Long> airConditioner = computer.copy().run(List.of(1L));
+        List<Long> thermalRadiator = computer.copy().run(List.of(5L));
+
+        //Then
+        then(airConditioner.getLast()).isEqualTo(10987514L);
+        then(airConditioner.subList(0, airConditioner.size() - 1)).containsOnly(0L);
+        then(thermalRadiator).containsExactly(14195011L);
+    }
+
+    @Test
+    void should_fork_independent_snapshots() {
+        //Given
+        IntcodeComputer original = IntcodeComputer.of("1,0,0,0,99");
+
+        //When
+        IntcodeComputer fork = original.copy();
+        fork.run();
+
+        //Then
+        then(fork.read(0)).isEqualTo(2L);
+        then(original.read(0)).isEqualTo(1L);
+        then(original.isHalted()).isFalse();
+    }
+
+    @Test
+    void should_fail_when_input_is_missing() {
+        assertThatThrownBy(() -> IntcodeComputer.of("3,0,99").run(List.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void should_generate_all_permutations() {
+        then(AmplifierPipeline.permutations(new int[] {0, 1, 2, 3, 4})).hasSize(120);
+    }
+
+    @Test
+    @Timeout(10)
+    void should_fail_the_pipeline_when_an_amplifier_fails() {
+        AmplifierPipeline pipeline = new AmplifierPipeline(new long[] {3, 0, 3, 0, 42});
+
+        assertThatThrownBy(() -> pipeline.run(new int[] {0, 1, 2, 3, 4}, false))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline.run(new int[] {5, 6, 7, 8, 9}, true))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline.maxSignal(new int[] {0, 1, 2, 3, 4}, false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,162 @@
+package info.jab.aoc2024.day11;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMaps;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stone simulation on a multiset: a primitive open addressing map from engraved number to the number
+ * of stones carrying it. Stones with the same number evolve identically, so one blink costs one step per
+ * distinct number, and only a few thousand distinct numbers ever show up.
+ *
+ * Digit counts and halves are computed arithmetically with a power of ten table.
+ * Stone counts use exact arithmetic and throw ArithmeticException once they no longer fit in a long,
+ * which happens after about 100 blinks; distinct stones can be traced for any number of blinks.
+ */
+public final class BlinkEngine {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Stones after a blink
+     *
+     * @param blink The blink number, starting at 1
+     * @param distinctStones The number of distinct engraved numbers
+     * @param totalStones The number of stones
+     */
+    public record BlinkStats(int blink, int distinctStones, long totalStones) {}
+
+    private BlinkEngine() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * The number of stones after the given number of blinks
+     *
+     * @param line The initial stones, separated by spaces
+     * @param blinks The number of blinks
+     * @return The number of stones
+     * @throws ArithmeticException if the number of stones does not fit in a long
+     */
+    public static long count(String line, int blinks) {
+        Long2LongOpenHashMap stones = parse(line);
+        for (int i = 0; i < blinks; i++) {
+            stones = blink(stones);
+        }
+        return total(stones);
+    }
+
+    /**
+     * Count many independent starting lines in parallel
+     *
+     * @param lines The initial stones of every line
+     * @param blinks The number of blinks
+     * @return The number of stones of every line, in the same order
+     */
+    public static long[] countAll(List<String> lines, int blinks) {
+        return lines.parallelStream()
+                .mapToLong(line -> count(line, blinks))
+                .toArray();
+    }
+
+    /**
+     * Distinct and total stones after every blink
+     *
+     * @param line The initial stones, separated by spaces
+     * @param blinks The number of blinks
+     * @return One entry per blink
+     * @throws ArithmeticException if the number of stones does not fit in a long
+     */
+    public static List<BlinkStats> trace(String line, int blinks) {
+        List<BlinkStats> stats = new ArrayList<>(blinks);
+        Long2LongOpenHashMap stones = parse(line);
+        for (int i = 1; i <= blinks; i++) {
+            stones = blink(stones);
+            stats.add(new BlinkStats(i, stones.size(), total(stones)));
+        }
+        return stats;
+    }
+
+    /**
+     * Distinct stones after every blink. Only which numbers are present matters here, so every
+     * number keeps a count of one and any number of blinks can be simulated.
+     *
+     * @param line The initial stones, separated by spaces
+     * @param blinks The number of blinks
+     * @return The number of distinct stones after blink 1 to blinks
+     */
+    public static int[] distinctStones(String line, int blinks) {
+        int[] distinct = new int[blinks];
+        Long2LongOpenHashMap stones = parse(line);
+        for (int i = 0; i < blinks; i++) {
+            stones = blink(stones);
+            for (Long2LongMap.Entry entry : Long2LongMaps.fastIterable(stones)) {
+                entry.setValue(1L);
+            }
+            distinct[i] = stones.size();
+        }
+        return distinct;
+    }
+
+    static Long2LongOpenHashMap parse(String line) {
+        Long2LongOpenHashMap stones = new Long2LongOpenHashMap();
+        Arrays.stream(line.trim().split("\\s+"))
+                .mapToLong(Long::parseLong)
+                .forEach(stone -> stones.addTo(stone, 1));
+        return stones;
+    }
+
+    static Long2LongOpenHashMap blink(Long2LongOpenHashMap stones) {
+        Long2LongOpenHashMap next = new Long2LongOpenHashMap(stones.size() * 2);
+        for (Long2LongMap.Entry entry : Long2LongMaps.fastIterable(stones)) {
+            long stone = entry.getLongKey();
+            long count = entry.getLongValue();
+            if (stone == 0) {
+                add(next, 1, count);
+                continue;
+            }
+            int digits = digits(stone);
+            if ((digits & 1) == 0) {
+                long half = POWERS_OF_TEN[digits >> 1];
+                add(next, stone / half, count);
+                add(next, stone % half, count);
+            } else {
+                add(next, Math.multiplyExact(stone, 2024L), count);
+            }
+        }
+        return next;
+    }
+
+    private static void add(Long2LongOpenHashMap stones, long stone, long count) {
+        if (stones.addTo(stone, count) > Long.MAX_VALUE - count) {
+            throw new ArithmeticException("Stone count overflow");
+        }
+    }
+
+    private static long total(Long2LongOpenHashMap stones) {
+        long total = 0;
+        for (Long2LongMap.Entry entry : Long2LongMaps.fastIterable(stones)) {
+            total = Math.addExact(total, entry.getLongValue());
+        }
+        return total;
+    }
+
+    static int digits(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
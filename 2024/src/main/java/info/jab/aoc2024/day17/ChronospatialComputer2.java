@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.putoet.resources.ResourceLines;
 
@@ -103,4 +104,50 @@ public class ChronospatialComputer2 {
     private long adjustAccumulator(long accumulator) {
         return accumulator << 3; // Equivalent to accumulator * 8
     }
+
+    //Third version, pre-decoded program with early exit and a parallel search of the octal digits
+
+    private static final int OCTAL_DIGITS = 8;
+
+    public String part23(String fileName) {
+        var loadData = loadData(fileName);
+        int[] program = loadData.opcodes().stream().mapToInt(Integer::intValue).toArray();
+        Computer prototype = new Computer(program);
+        // One computer per worker thread, reset for every candidate, so the search reuses its output buffers
+        ThreadLocal<Computer> computers = ThreadLocal.withInitial(prototype::fork);
+        long result = findQuine(computers, loadData, program, program.length - 1, 0L);
+        if (result < 0) {
+            throw new IllegalStateException("No value of register A makes the program output itself");
+        }
+        return Long.toString(result);
+    }
+
+    /**
+     * Every output digit depends on the next three bits of A, so A is built from the most significant octal
+     * digit down. The 8 candidates of each step are checked concurrently, matches are explored in ascending
+     * order so the first complete match is the lowest A.
+     */
+    private long findQuine(
+            ThreadLocal<Computer> computers, InputData loadData, int[] program, int from, long accumulator) {
+        if (from < 0) {
+            return accumulator;
+        }
+        long[] matches = IntStream.range(0, OCTAL_DIGITS)
+                .parallel()
+                .mapToLong(digit -> (accumulator << 3) | digit)
+                .filter(candidate -> computers.get().emits(candidate, loadData.b(), loadData.c(), program, from))
+                .sorted()
+                .toArray();
+        for (long candidate : matches) {
+            // Register A must end up positive
+            if (candidate == 0 && from == 0) {
+                continue;
+            }
+            long result = findQuine(computers, loadData, program, from - 1, candidate);
+            if (result >= 0) {
+                return result;
+            }
+        }
+        return -1L;
+    }
 }
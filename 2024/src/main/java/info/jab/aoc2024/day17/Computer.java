@@ -1,57 +1,102 @@
 package info.jab.aoc2024.day17;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Computer over a pre-decoded int[] program.
+ * The program is shared between forks, every fork owns its registers and a reusable output buffer,
+ * so a candidate search can run millions of programs without allocating.
+ */
 class Computer {
     private long a;
     private long b;
     private long c;
-    private final List<Integer> opcodes;
+    private final int[] program;
 
     private int ip;
+    private int[] output;
+    private int outputSize;
 
     Computer(long registerA, int registerB, int registerC, List<Integer> opcodes) {
+        this(opcodes.stream().mapToInt(Integer::intValue).toArray());
+        reset(registerA, registerB, registerC);
+    }
+
+    Computer(int[] program) {
+        this.program = program;
+        this.output = new int[Math.max(program.length, 16)];
+    }
+
+    /**
+     * A computer sharing the decoded program, with its own registers and output buffer
+     */
+    Computer fork() {
+        return new Computer(program);
+    }
+
+    void reset(long registerA, long registerB, long registerC) {
         this.a = registerA;
         this.b = registerB;
         this.c = registerC;
-        this.opcodes = opcodes;
         this.ip = 0;
+        this.outputSize = 0;
     }
 
-    //TODO Improve the refactoring using ADTs
     List<Integer> execute() {
-        List<Integer> out = new ArrayList<>();
-        while (ip < opcodes.size()) {
-            int litOp = opcodes.get(ip + 1);
-            long combOp = getComboOperandValue(opcodes.get(ip + 1));
+        run(null, 0);
+        List<Integer> out = new ArrayList<>(outputSize);
+        for (int i = 0; i < outputSize; i++) {
+            out.add(output[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Run the program and check that its output is exactly expected[from..], aborting on the first divergence
+     *
+     * @param registerA The initial A register
+     * @param registerB The initial B register
+     * @param registerC The initial C register
+     * @param expected The expected output
+     * @param from The first expected value
+     * @return true if the whole output matches the expected suffix
+     */
+    boolean emits(long registerA, long registerB, long registerC, int[] expected, int from) {
+        reset(registerA, registerB, registerC);
+        return run(expected, from) && outputSize == expected.length - from;
+    }
+
+    //TODO Improve the refactoring using ADTs
+    private boolean run(int[] expected, int from) {
+        final int[] code = program;
+        while (ip + 1 < code.length) {
+            int litOp = code[ip + 1];
+            long combOp = getComboOperandValue(litOp);
 
             boolean skipIncrease = false;
-            switch (opcodes.get(ip)) {
-                case 0 -> {
-                    long den = (long) Math.pow(2, combOp);
-                    a = a / den;
-                }
+            switch (code[ip]) {
+                case 0 -> a = shift(a, combOp);
                 case 1 -> b = b ^ litOp;
-                case 2 -> b = combOp % 8;
+                case 2 -> b = combOp & 7;
                 case 3 -> {
                     if (a != 0) {
                         ip = litOp;
                         skipIncrease = true;
-                    } else {
-                        skipIncrease = false;
                     }
                 }
                 case 4 -> b = b ^ c;
-                case 5 -> out.add((int) (combOp % 8L));
-                case 6 -> {
-                    long den = (long) Math.pow(2, combOp);
-                    b = a / den;
-                }
-                case 7 -> {
-                    long den = (long) Math.pow(2, combOp);
-                    c = a / den;
+                case 5 -> {
+                    final int value = (int) (combOp & 7);
+                    if (expected != null
+                            && (from + outputSize >= expected.length || expected[from + outputSize] != value)) {
+                        return false;
+                    }
+                    emit(value);
                 }
+                case 6 -> b = shift(a, combOp);
+                case 7 -> c = shift(a, combOp);
                 default -> {
                     // Unknown opcode, skip instruction
                 }
@@ -61,7 +106,19 @@ class Computer {
                 ip += 2;
             }
         }
-        return out;
+        return true;
+    }
+
+    // a / 2^operand, registers are non negative so the division is a shift
+    private static long shift(long value, long operand) {
+        return operand >= 63 ? 0 : value >> operand;
+    }
+
+    private void emit(int value) {
+        if (outputSize == output.length) {
+            output = Arrays.copyOf(output, output.length * 2);
+        }
+        output[outputSize++] = value;
     }
 
     long getComboOperandValue(int value) {
@@ -70,7 +127,7 @@ class Computer {
             case 4 -> a;
             case 5 -> b;
             case 6 -> c;
-            default -> throw new IllegalArgumentException("Invalid combo operand: " + value);
+            default -> 0; // Reserved combo operand 7, only valid as a literal operand
         };
     }
 
@@ -78,4 +135,3 @@ class Computer {
         return String.join(",", out.stream().map(Long::toString).toList());
     }
 }
-
@@ -20,6 +20,6 @@ public class Day17 implements Day<String> {
     @Override
     public String getPart2Result(String fileName) {
         ChronospatialComputer2 chronospatialComputer2 = new ChronospatialComputer2();
-        return chronospatialComputer2.part22(fileName);
+        return chronospatialComputer2.part23(fileName);
     }
 }
@@ -42,55 +42,23 @@ public class TowelArrangement {
         return new InputData(towelPatterns, designsList);
     }
 
-    // Function to determine if a design can be formed using the available patterns
-    private boolean canFormDesign(String design, Set<String> towelPatterns) {
-        int n = design.length();
-        boolean[] dp = new boolean[n + 1];
-        dp[0] = true; // Empty design can always be formed
-
-        for (int i = 1; i <= n; i++) {
-            for (String pattern : towelPatterns) {
-                int len = pattern.length();
-                if (i >= len && design.substring(i - len, i).equals(pattern)) {
-                    dp[i] = dp[i] || dp[i - len];
-                }
-            }
-        }
-        return dp[n];
-    }
-
     Long solve1(String fileName) {
         var inputData = getInputData(fileName);
+        var matcher = new TowelMatcher(inputData.towelPatterns());
 
         // Count how many designs are possible
-        return inputData.designList().stream()
-            .filter(design -> canFormDesign(design, inputData.towelPatterns()))
+        return inputData.designList().parallelStream()
+            .filter(matcher::canForm)
             .count();
     }
 
-    // Function to calculate the number of ways to form a design
-    private Long countWaysToFormDesign(String design, Set<String> towelPatterns) {
-        int n = design.length();
-        long[] dp = new long[n + 1];
-        dp[0] = 1; // There's one way to form an empty design
-
-        for (int i = 1; i <= n; i++) {
-            for (String pattern : towelPatterns) {
-                int len = pattern.length();
-                if (i >= len && design.substring(i - len, i).equals(pattern)) {
-                    dp[i] += dp[i - len]; // Add the number of ways to form the remaining design
-                }
-            }
-        }
-        return dp[n];
-    }
-
     Long solve2(String fileName) {
         var inputData = getInputData(fileName);
+        var matcher = new TowelMatcher(inputData.towelPatterns());
 
         // Calculate the total number of ways to form all designs
-        return inputData.designList().stream()
-            .mapToLong(design -> countWaysToFormDesign(design, inputData.towelPatterns()))
+        return inputData.designList().parallelStream()
+            .mapToLong(matcher::countWays)
             .sum();
     }
 
@@ -113,10 +81,11 @@ public class TowelArrangement {
         };
 
         TowelArrangement towelArrangement = new TowelArrangement();
+        TowelMatcher matcher = new TowelMatcher(towelPatterns);
         // Count how many designs are possible
         int possibleCount = 0;
         for (String design : designsArray) {
-            if (towelArrangement.canFormDesign(design, towelPatterns)) {
+            if (matcher.canForm(design)) {
                 possibleCount++;
             }
         }
@@ -0,0 +1,153 @@
+package info.jab.aoc2024.day19;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Aho-Corasick automaton compiled once from the towel patterns.
+ *
+ * States are the prefixes of the patterns, transitions are resolved for every character of the
+ * alphabet so scanning a design is one array lookup per character. Every state links to the longest
+ * proper suffix that is a whole pattern, so the patterns ending at a position are found by following
+ * that chain, without looking at the patterns that do not match.
+ */
+final class TowelMatcher {
+
+    private static final int ASCII = 128;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    // Character to alphabet index, NONE for characters no pattern uses
+    private final int[] alphabet = new int[ASCII];
+    private final int alphabetSize;
+    // Resolved transitions, state * alphabetSize + character
+    private final int[] transitions;
+    // Length of the pattern spelled by the state, 0 if the state is not a whole pattern
+    private final int[] patternLength;
+    // Nearest state on the failure chain that is a whole pattern, NONE if there is none
+    private final int[] outputLink;
+
+    TowelMatcher(Collection<String> patterns) {
+        Arrays.fill(alphabet, NONE);
+        int size = 0;
+        int maxStates = 1;
+        for (String pattern : patterns) {
+            maxStates += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Unsupported towel colour: " + c);
+                }
+                if (alphabet[c] == NONE) {
+                    alphabet[c] = size++;
+                }
+            }
+        }
+        this.alphabetSize = Math.max(size, 1);
+
+        // Trie
+        int[] trie = new int[maxStates * alphabetSize];
+        Arrays.fill(trie, NONE);
+        int[] lengths = new int[maxStates];
+        int states = 1;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * alphabetSize + alphabet[pattern.charAt(i)];
+                if (trie[slot] == NONE) {
+                    trie[slot] = states++;
+                }
+                state = trie[slot];
+            }
+            lengths[state] = pattern.length();
+        }
+
+        // Failure links in breadth first order, turning the trie into a complete transition table
+        int[] fail = new int[states];
+        int[] output = new int[states];
+        output[ROOT] = NONE;
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < alphabetSize; c++) {
+            int child = trie[c];
+            if (child == NONE) {
+                trie[c] = ROOT;
+            } else {
+                fail[child] = ROOT;
+                output[child] = NONE;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int c = 0; c < alphabetSize; c++) {
+                int slot = state * alphabetSize + c;
+                int child = trie[slot];
+                int fallback = trie[fail[state] * alphabetSize + c];
+                if (child == NONE) {
+                    trie[slot] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    output[child] = lengths[fallback] > 0 ? fallback : output[fallback];
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, states * alphabetSize);
+        this.patternLength = Arrays.copyOf(lengths, states);
+        this.outputLink = output;
+    }
+
+    /**
+     * Whether the design can be made by concatenating patterns
+     */
+    boolean canForm(String design) {
+        int n = design.length();
+        boolean[] dp = new boolean[n + 1];
+        dp[0] = true;
+
+        int state = ROOT;
+        for (int i = 1; i <= n; i++) {
+            state = next(state, design.charAt(i - 1));
+            for (int match = firstMatch(state); match != NONE && !dp[i]; match = outputLink[match]) {
+                dp[i] = dp[i - patternLength[match]];
+            }
+        }
+        return dp[n];
+    }
+
+    /**
+     * The number of distinct ways to make the design by concatenating patterns
+     */
+    long countWays(String design) {
+        int n = design.length();
+        long[] dp = new long[n + 1];
+        dp[0] = 1;
+
+        int state = ROOT;
+        for (int i = 1; i <= n; i++) {
+            state = next(state, design.charAt(i - 1));
+            long ways = 0;
+            for (int match = firstMatch(state); match != NONE; match = outputLink[match]) {
+                ways += dp[i - patternLength[match]];
+            }
+            dp[i] = ways;
+        }
+        return dp[n];
+    }
+
+    private int next(int state, char c) {
+        int index = c < ASCII ? alphabet[c] : NONE;
+        // No pattern contains the character, so no match can span it
+        return index == NONE ? ROOT : transitions[state * alphabetSize + index];
+    }
+
+    private int firstMatch(int state) {
+        return patternLength[state] > 0 ? state : outputLink[state];
+    }
+}
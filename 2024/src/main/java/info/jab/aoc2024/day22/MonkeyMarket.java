@@ -1,8 +1,7 @@
 package info.jab.aoc2024.day22;
 
-import com.putoet.resources.ResourceLines;
-import java.util.HashSet;
-import java.util.HashMap;
+import com.putoet.resources.MappedResource;
+import java.util.stream.IntStream;
 
 public class MonkeyMarket {
 
@@ -17,8 +16,7 @@ public class MonkeyMarket {
     }
 
     private long[] getInputData(String fileName) {
-        var list = ResourceLines.list(fileName);
-        return list.stream().mapToLong(Long::parseLong).toArray();
+        return MappedResource.of(fileName).scanner().longs();
     }
 
     public Long solvePartOne(String fileName) {
@@ -35,69 +33,98 @@ public class MonkeyMarket {
         return result;
     }
 
-    record CacheKey(long a, long b, long c, long d) {
-        public long[] getArray() {
-            return new long[] { a, b, c, d };
-        }
-    }
+    private static final int ITERATIONS = 2000;
+    private static final int PRUNE_MASK = 16777216 - 1;
+    // Price changes go from -9 to 9, four of them are packed as a base 19 number
+    private static final int DELTAS = 19;
+    private static final int SEQUENCES = DELTAS * DELTAS * DELTAS * DELTAS;
+    // Buyers whose secrets are advanced together, one int lane each
+    private static final int LANES = 64;
 
     /**
-     * Solves part two of the problem by processing a sequence of secrets and accumulating values
-     * based on specific sequences of differences between consecutive secrets.
-     *
-     * <p>The method uses two primary data structures:</p>
-     *
-     * <ul>
-     * <li><b>HashMap&lt;CacheKey, Long&gt; cache</b>: Stores the accumulated values for each unique sequence
-     * of secret values. This allows for quick updates and retrieval of the accumulated value for a given sequence.</li>
-     * <li><b>HashSet&lt;CacheKey&gt; processed</b>: Tracks which sequences have already been processed
-     * in the current iteration, preventing redundant processing of the same sequence.</li>
-     * </ul>
-     *
-     * <p>The flow of logic is as follows:</p>
-     *
-     * <ol>
-     * <li>For each number in the initial secrets, a sequence of secrets is generated and stored in the array {@code seq}.</li>
-     * <li>For each iteration, a new secret is generated using {@code getNextSecret(newSecret)}, and a difference value is calculated
-     * as {@code seq[i] = ((a % 10) - (newSecret % 10))}.</li>
-     * <li>If the sequence length is greater than or equal to 3, a {@code CacheKey} is formed using the last four values
-     * of the sequence, and the program checks whether that sequence has already been processed for the current secret
-     * using {@code processed.contains(key)}.</li>
-     * <li>If the sequence hasn't been processed, it's added to the {@code processed} set, and the {@code cache} is updated
-     * with the new secret's value (mod 10) by merging it with the current accumulated value.</li>
-     * <li>Finally, after processing all secrets, the maximum accumulated value from the {@code cache} is returned.</li>
-     * </ol>
+     * Solves part two: the best total price over all buyers for a sequence of four price changes,
+     * each buyer selling at the first occurrence of the sequence.
      *
-     * <p>The combination of the {@code HashMap} and {@code HashSet} enables the method to process large inputs efficiently
-     * by avoiding redundant work and storing intermediate results in a cache for reuse.</p>
+     * <p>A sequence is encoded as a single index in a dense int[19^4] of totals, and a per-buyer stamp
+     * in a second dense array marks the sequences a buyer already sold on, so no key object, set or map
+     * is touched per step. Buyers are processed in blocks whose secrets advance together in int lanes,
+     * blocks are spread over the fork-join pool and every worker keeps its own arrays, which are
+     * summed at the end.</p>
      */
     public Long solvePartTwo(String fileName) {
-        long[] initialSecrets = getInputData(fileName);
-        final int iterations = 2000;
+        return bestSequenceTotal(getInputData(fileName));
+    }
 
-        HashMap<CacheKey, Long> cache = new HashMap<>();
-        for (long num : initialSecrets) {
-            long newSecret = num;
+    public Long bestSequenceTotal(long[] initialSecrets) {
+        final int[] secrets = new int[initialSecrets.length];
+        for (int i = 0; i < secrets.length; i++) {
+            secrets[i] = (int) (initialSecrets[i] & PRUNE_MASK);
+        }
 
-            long[] seq = new long[iterations];
-            HashSet<CacheKey> processed = new HashSet<>();
+        final int blocks = (secrets.length + LANES - 1) / LANES;
+        final int[] totals = IntStream.range(0, blocks)
+                .parallel()
+                .collect(SequenceTotals::new, (acc, block) -> acc.add(secrets, block * LANES), SequenceTotals::merge)
+                .totals;
 
-            for (int i = 0; i < iterations; i++) {
-                var a = getNextSecret(newSecret);
-                seq[i] = ((a % 10) - (newSecret % 10));
-                newSecret = a;
+        long best = 0;
+        for (int total : totals) {
+            best = Math.max(best, total);
+        }
+        return best;
+    }
+
+    /**
+     * Per worker accumulator: the totals of every sequence and the stamp of the last buyer that sold on it
+     */
+    private static final class SequenceTotals {
+        private final int[] totals = new int[SEQUENCES];
+        private final int[] seen = new int[SEQUENCES];
+        private final int[] secret = new int[LANES];
+        // Prices of the block, step major, so every step of the generation writes one contiguous row
+        private final byte[] prices = new byte[(ITERATIONS + 1) * LANES];
+
+        void add(int[] secrets, int first) {
+            final int lanes = Math.min(LANES, secrets.length - first);
+            System.arraycopy(secrets, first, secret, 0, lanes);
+            for (int l = 0; l < LANES; l++) {
+                prices[l] = (byte) (secret[l] % 10);
+            }
+
+            for (int step = 1; step <= ITERATIONS; step++) {
+                // Straight xor-shift loop over the lanes, compiled to vector instructions by the JIT
+                final int row = step * LANES;
+                for (int l = 0; l < LANES; l++) {
+                    int s = secret[l];
+                    s ^= (s << 6) & PRUNE_MASK;
+                    s ^= s >>> 5;
+                    s ^= (s << 11) & PRUNE_MASK;
+                    secret[l] = s;
+                    prices[row + l] = (byte) (s % 10);
+                }
+            }
 
-                if (i >= 3) {
-                    var key = new CacheKey(seq[i - 3], seq[i - 2], seq[i - 1], seq[i]);
-                    if (!processed.contains(key)) {
-                        processed.add(key);
-                        cache.merge(key, newSecret % 10, Long::sum);
+            // Scoring goes buyer by buyer, a stamp is only valid while its buyer is being scored
+            for (int l = 0; l < lanes; l++) {
+                final int stamp = first + l + 1;
+                int sequence = 0;
+                int price = prices[l];
+                for (int step = 1; step <= ITERATIONS; step++) {
+                    final int next = prices[step * LANES + l];
+                    sequence = (sequence * DELTAS + next - price + 9) % SEQUENCES;
+                    price = next;
+                    if (step >= 4 && seen[sequence] != stamp) {
+                        seen[sequence] = stamp;
+                        totals[sequence] += next;
                     }
                 }
             }
         }
 
-        // Find the maximum accumulated value in the cache
-        return cache.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        void merge(SequenceTotals other) {
+            for (int i = 0; i < SEQUENCES; i++) {
+                totals[i] += other.totals[i];
+            }
+        }
     }
 }
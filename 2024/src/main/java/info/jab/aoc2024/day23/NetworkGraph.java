@@ -0,0 +1,345 @@
+package info.jab.aoc2024.day23;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Undirected graph with computer names interned to dense int ids.
+ *
+ * Adjacency is kept as sorted int[] rows, which stays linear in the number of connections even
+ * for tens of thousands of computers. The clique search works one vertex at a time on the subgraph of
+ * its neighbours later in a degeneracy order, at most the degeneracy of the graph, small enough to hold
+ * as long[] bitset rows, so every set operation of Bron-Kerbosch is a few word-wise ANDs.
+ */
+final class NetworkGraph {
+
+    private final String[] names;
+    private final int[][] adjacency;
+
+    private NetworkGraph(String[] names, int[][] adjacency) {
+        this.names = names;
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * Build the graph from lines like "kh-tc"
+     */
+    static NetworkGraph parse(List<String> lines) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] from = new int[lines.size()];
+        int[] to = new int[lines.size()];
+        int[] degree = new int[lines.size() * 2];
+        int edges = 0;
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] parts = line.trim().split("-");
+            int a = ids.computeIfAbsent(parts[0], name -> { names.add(name); return names.size() - 1; });
+            int b = ids.computeIfAbsent(parts[1], name -> { names.add(name); return names.size() - 1; });
+            if (a == b) {
+                continue;
+            }
+            from[edges] = a;
+            to[edges] = b;
+            degree[a]++;
+            degree[b]++;
+            edges++;
+        }
+
+        int n = names.size();
+        int[][] adjacency = new int[n][];
+        for (int v = 0; v < n; v++) {
+            adjacency[v] = new int[degree[v]];
+        }
+        int[] fill = new int[n];
+        for (int e = 0; e < edges; e++) {
+            adjacency[from[e]][fill[from[e]]++] = to[e];
+            adjacency[to[e]][fill[to[e]]++] = from[e];
+        }
+        // Sorted rows without repeated connections
+        for (int v = 0; v < n; v++) {
+            int[] row = adjacency[v];
+            Arrays.sort(row);
+            int unique = 0;
+            for (int i = 0; i < row.length; i++) {
+                if (i == 0 || row[i] != row[i - 1]) {
+                    row[unique++] = row[i];
+                }
+            }
+            adjacency[v] = unique == row.length ? row : Arrays.copyOf(row, unique);
+        }
+        return new NetworkGraph(names.toArray(String[]::new), adjacency);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Count the triangles with at least one computer whose name passes the filter.
+     * Every triangle u < v < w is visited once, by merging the sorted rows of u and v above v.
+     */
+    long countTriangles(Predicate<String> anyComputer) {
+        boolean[] marked = new boolean[names.length];
+        for (int v = 0; v < names.length; v++) {
+            marked[v] = anyComputer.test(names[v]);
+        }
+
+        return IntStream.range(0, names.length).parallel()
+            .mapToLong(u -> {
+                long count = 0;
+                int[] rowU = adjacency[u];
+                for (int i = upperBound(rowU, u); i < rowU.length; i++) {
+                    int v = rowU[i];
+                    int[] rowV = adjacency[v];
+                    int a = i + 1;
+                    int b = upperBound(rowV, v);
+                    while (a < rowU.length && b < rowV.length) {
+                        if (rowU[a] < rowV[b]) {
+                            a++;
+                        } else if (rowU[a] > rowV[b]) {
+                            b++;
+                        } else {
+                            if (marked[u] || marked[v] || marked[rowU[a]]) {
+                                count++;
+                            }
+                            a++;
+                            b++;
+                        }
+                    }
+                }
+                return count;
+            })
+            .sum();
+    }
+
+    /**
+     * The largest clique, as sorted computer names; among cliques of the same size, the one whose names
+     * come first once joined with commas.
+     *
+     * Every clique is looked for from its vertex that comes first in a degeneracy order, among the
+     * neighbours of that vertex later in the order, which are at most the degeneracy of the graph. The per
+     * vertex searches run in parallel and share the best size found so far to prune branches that cannot
+     * reach it.
+     */
+    List<String> maximumClique() {
+        if (names.length == 0) {
+            return List.of();
+        }
+        int[] rank = degeneracyRank();
+        AtomicInteger best = new AtomicInteger(1);
+
+        Optional<List<String>> largest = IntStream.range(0, names.length).parallel()
+            .mapToObj(v -> new LocalSearch(v, rank, best).run())
+            .reduce((c1, c2) -> c1.size() != c2.size()
+                ? (c1.size() > c2.size() ? c1 : c2)
+                : (String.join(",", c1).compareTo(String.join(",", c2)) <= 0 ? c1 : c2));
+        return largest.orElseThrow();
+    }
+
+    /**
+     * Position of every vertex in a degeneracy order: repeatedly remove a vertex of minimum degree,
+     * with bucket queues it is linear in the size of the graph.
+     */
+    private int[] degeneracyRank() {
+        int n = names.length;
+        int maxDegree = 0;
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            degree[v] = adjacency[v].length;
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+
+        // Vertices sorted by degree, with the start of every degree bucket
+        int[] bucketStart = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            bucketStart[degree[v] + 1]++;
+        }
+        for (int d = 1; d < bucketStart.length; d++) {
+            bucketStart[d] += bucketStart[d - 1];
+        }
+        int[] order = new int[n];
+        int[] position = new int[n];
+        int[] next = Arrays.copyOf(bucketStart, bucketStart.length);
+        for (int v = 0; v < n; v++) {
+            position[v] = next[degree[v]]++;
+            order[position[v]] = v;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            for (int w : adjacency[v]) {
+                if (degree[w] > degree[v]) {
+                    // Move w to the front of its bucket, then shrink the bucket by one
+                    int d = degree[w];
+                    int front = bucketStart[d];
+                    int u = order[front];
+                    if (u != w) {
+                        order[position[w]] = u;
+                        position[u] = position[w];
+                        order[front] = w;
+                        position[w] = front;
+                    }
+                    bucketStart[d] = front + 1;
+                    degree[w]--;
+                }
+            }
+        }
+
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+
+    private static int upperBound(int[] row, int value) {
+        int index = Arrays.binarySearch(row, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Bron-Kerbosch with Tomita pivoting on the later neighbours of one vertex in the degeneracy order.
+     * Every clique is searched for from its earliest vertex only, so there is no excluded set: the search
+     * may also visit cliques that are not maximal, which cannot be larger than the maximum one anyway.
+     */
+    private final class LocalSearch {
+        private final int root;
+        private final int[] local;
+        private final long[][] rows;
+        private final int words;
+        private final AtomicInteger best;
+        private final int[] clique;
+        private List<String> bestClique;
+
+        LocalSearch(int root, int[] rank, AtomicInteger best) {
+            this.root = root;
+            this.local = Arrays.stream(adjacency[root]).filter(w -> rank[w] > rank[root]).toArray();
+            this.words = (local.length + 63) >>> 6;
+            this.rows = new long[local.length][words];
+            this.best = best;
+            this.clique = new int[local.length];
+
+            // Both rows are sorted by id, a merge finds the later neighbours adjacent to each other
+            for (int i = 0; i < local.length; i++) {
+                int[] row = adjacency[local[i]];
+                int a = 0;
+                int j = 0;
+                while (a < row.length && j < local.length) {
+                    if (row[a] < local[j]) {
+                        a++;
+                    } else if (row[a] > local[j]) {
+                        j++;
+                    } else {
+                        rows[i][j >>> 6] |= 1L << j;
+                        a++;
+                        j++;
+                    }
+                }
+            }
+        }
+
+        List<String> run() {
+            long[] candidates = new long[words];
+            for (int i = 0; i < local.length; i++) {
+                candidates[i >>> 6] |= 1L << i;
+            }
+            bestClique = List.of(names[root]);
+            expand(0, candidates);
+            return bestClique;
+        }
+
+        private void expand(int depth, long[] p) {
+            int candidateCount = count(p);
+            if (candidateCount == 0) {
+                record(depth);
+                return;
+            }
+            // Even taking every candidate the clique would be smaller than one already found
+            if (depth + 1 + candidateCount < best.get()) {
+                return;
+            }
+
+            long[] branch = p.clone();
+            andNot(branch, rows[pivot(p)]);
+            for (int w = 0; w < words; w++) {
+                for (long bits = branch[w]; bits != 0; bits &= bits - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    clique[depth] = v;
+                    expand(depth + 1, and(p, rows[v]));
+                    p[v >>> 6] &= ~(1L << v);
+                }
+            }
+        }
+
+        // Keep the larger clique, or on the same size the one with the smallest sorted names
+        private void record(int depth) {
+            if (depth + 1 < bestClique.size()) {
+                return;
+            }
+            List<String> found = new ArrayList<>(depth + 1);
+            found.add(names[root]);
+            for (int i = 0; i < depth; i++) {
+                found.add(names[local[clique[i]]]);
+            }
+            found.sort(Comparator.naturalOrder());
+            if (found.size() > bestClique.size()
+                || String.join(",", found).compareTo(String.join(",", bestClique)) < 0) {
+                bestClique = found;
+                best.accumulateAndGet(found.size(), Math::max);
+            }
+        }
+
+        // The candidate with the most neighbours among the candidates, leaving the fewest branches
+        private int pivot(long[] p) {
+            int pivot = -1;
+            int most = -1;
+            for (int w = 0; w < words; w++) {
+                for (long bits = p[w]; bits != 0; bits &= bits - 1) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    int neighbours = 0;
+                    for (int k = 0; k < words; k++) {
+                        neighbours += Long.bitCount(p[k] & rows[u][k]);
+                    }
+                    if (neighbours > most) {
+                        most = neighbours;
+                        pivot = u;
+                    }
+                }
+            }
+            return pivot;
+        }
+
+        private long[] and(long[] a, long[] b) {
+            long[] result = new long[words];
+            for (int w = 0; w < words; w++) {
+                result[w] = a[w] & b[w];
+            }
+            return result;
+        }
+
+        private void andNot(long[] a, long[] b) {
+            for (int w = 0; w < words; w++) {
+                a[w] &= ~b[w];
+            }
+        }
+
+        private int count(long[] set) {
+            int count = 0;
+            for (long word : set) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+}
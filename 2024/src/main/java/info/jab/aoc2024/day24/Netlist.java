@@ -0,0 +1,408 @@
+package info.jab.aoc2024.day24;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Compiled netlist of the monitoring device.
+ *
+ * Wires are interned to ints and gates are stored in topological order in flat arrays, so an evaluation
+ * is a single pass over the gates. Every wire carries a long, one bit per test vector, which evaluates
+ * 64 independent inputs at once. An index from every wire to the gates it feeds keeps the structural
+ * checks of the ripple-carry adder linear in the number of gates.
+ */
+final class Netlist {
+
+    static final byte AND = 0;
+    static final byte OR = 1;
+    static final byte XOR = 2;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final long[] initial;
+    private final byte[] op;
+    private final int[] left;
+    private final int[] right;
+    private final int[] out;
+    // Gates fed by wire w: consumers[consumerStart[w] .. consumerStart[w + 1])
+    private final int[] consumerStart;
+    private final int[] consumers;
+    // Wire ids by bit position
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+
+    private Netlist(String[] names, Map<String, Integer> ids, long[] initial,
+                    byte[] op, int[] left, int[] right, int[] out) {
+        this.names = names;
+        this.ids = ids;
+        this.initial = initial;
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.out = out;
+
+        int wires = names.length;
+        this.consumerStart = new int[wires + 1];
+        for (int g = 0; g < op.length; g++) {
+            consumerStart[left[g] + 1]++;
+            consumerStart[right[g] + 1]++;
+        }
+        for (int w = 0; w < wires; w++) {
+            consumerStart[w + 1] += consumerStart[w];
+        }
+        this.consumers = new int[consumerStart[wires]];
+        int[] fill = Arrays.copyOf(consumerStart, wires);
+        for (int g = 0; g < op.length; g++) {
+            consumers[fill[left[g]]++] = g;
+            consumers[fill[right[g]]++] = g;
+        }
+
+        this.x = bits('x');
+        this.y = bits('y');
+        this.z = bits('z');
+    }
+
+    /**
+     * Compile the puzzle input: initial wire values, a blank line and one gate per line
+     *
+     * @throws IllegalArgumentException if a gate line is malformed or the gates form a cycle
+     */
+    static Netlist parse(List<String> lines) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<long[]> values = new ArrayList<>();
+        List<int[]> gates = new ArrayList<>();
+
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] parts = line.trim().split(":?\\s+");
+            if (parts.length == 2) {
+                int wire = intern(parts[0], ids, names);
+                values.add(new long[] {wire, Integer.parseInt(parts[1]) == 0 ? 0L : -1L});
+            } else if (parts.length == 5 && parts[3].equals("->")) {
+                gates.add(new int[] {
+                    opcode(parts[1]),
+                    intern(parts[0], ids, names),
+                    intern(parts[2], ids, names),
+                    intern(parts[4], ids, names)});
+            } else {
+                throw new IllegalArgumentException("Invalid line: " + line);
+            }
+        }
+
+        long[] initial = new long[names.size()];
+        for (long[] value : values) {
+            initial[(int) value[0]] = value[1];
+        }
+        int n = gates.size();
+        byte[] op = new byte[n];
+        int[] left = new int[n];
+        int[] right = new int[n];
+        int[] out = new int[n];
+        for (int g = 0; g < n; g++) {
+            int[] gate = gates.get(g);
+            op[g] = (byte) gate[0];
+            left[g] = gate[1];
+            right[g] = gate[2];
+            out[g] = gate[3];
+        }
+        return compile(names.toArray(String[]::new), ids, initial, op, left, right, out)
+            .orElseThrow(() -> new IllegalArgumentException("The gates form a cycle"));
+    }
+
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+        return ids.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+    }
+
+    private static int opcode(String name) {
+        return switch (name) {
+            case "AND" -> AND;
+            case "OR" -> OR;
+            case "XOR" -> XOR;
+            default -> throw new IllegalArgumentException("Unknown gate: " + name);
+        };
+    }
+
+    /**
+     * Sort the gates so every gate comes after the gates driving its inputs (Kahn's algorithm)
+     *
+     * @return The netlist, or empty if the gates form a cycle
+     */
+    private static Optional<Netlist> compile(String[] names, Map<String, Integer> ids, long[] initial,
+                                             byte[] op, int[] left, int[] right, int[] out) {
+        int wires = names.length;
+        int n = op.length;
+        int[] driver = new int[wires];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < n; g++) {
+            driver[out[g]] = g;
+        }
+
+        // Gates waiting on each gate, and the number of inputs still pending for each gate
+        int[] pending = new int[n];
+        int[] waitingStart = new int[n + 1];
+        for (int g = 0; g < n; g++) {
+            for (int input : new int[] {left[g], right[g]}) {
+                if (driver[input] >= 0) {
+                    pending[g]++;
+                    waitingStart[driver[input] + 1]++;
+                }
+            }
+        }
+        for (int g = 0; g < n; g++) {
+            waitingStart[g + 1] += waitingStart[g];
+        }
+        int[] waiting = new int[waitingStart[n]];
+        int[] fill = Arrays.copyOf(waitingStart, n);
+        for (int g = 0; g < n; g++) {
+            for (int input : new int[] {left[g], right[g]}) {
+                if (driver[input] >= 0) {
+                    waiting[fill[driver[input]]++] = g;
+                }
+            }
+        }
+
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int g = 0; g < n; g++) {
+            if (pending[g] == 0) {
+                order[tail++] = g;
+            }
+        }
+        while (head < tail) {
+            int g = order[head++];
+            for (int i = waitingStart[g]; i < waitingStart[g + 1]; i++) {
+                if (--pending[waiting[i]] == 0) {
+                    order[tail++] = waiting[i];
+                }
+            }
+        }
+        if (tail < n) {
+            return Optional.empty();
+        }
+
+        byte[] sortedOp = new byte[n];
+        int[] sortedLeft = new int[n];
+        int[] sortedRight = new int[n];
+        int[] sortedOut = new int[n];
+        for (int i = 0; i < n; i++) {
+            int g = order[i];
+            sortedOp[i] = op[g];
+            sortedLeft[i] = left[g];
+            sortedRight[i] = right[g];
+            sortedOut[i] = out[g];
+        }
+        return Optional.of(new Netlist(names, ids, initial, sortedOp, sortedLeft, sortedRight, sortedOut));
+    }
+
+    private int[] bits(char prefix) {
+        List<int[]> found = new ArrayList<>();
+        for (int w = 0; w < names.length; w++) {
+            if (names[w].length() > 1 && names[w].charAt(0) == prefix && names[w].substring(1).chars().allMatch(Character::isDigit)) {
+                found.add(new int[] {Integer.parseInt(names[w].substring(1)), w});
+            }
+        }
+        int[] bits = new int[found.stream().mapToInt(bit -> bit[0] + 1).max().orElse(0)];
+        Arrays.fill(bits, -1);
+        for (int[] bit : found) {
+            bits[bit[0]] = bit[1];
+        }
+        return bits;
+    }
+
+    /**
+     * Evaluate every gate once, in topological order
+     *
+     * @param wires One lane word per wire, the input wires already set, gate outputs are overwritten
+     */
+    void evaluate(long[] wires) {
+        for (int g = 0; g < op.length; g++) {
+            long a = wires[left[g]];
+            long b = wires[right[g]];
+            wires[out[g]] = switch (op[g]) {
+                case AND -> a & b;
+                case OR -> a | b;
+                default -> a ^ b;
+            };
+        }
+    }
+
+    /**
+     * The number on the z wires for the initial wire values, as wide as the adder
+     */
+    BigInteger output() {
+        long[] wires = initial.clone();
+        evaluate(wires);
+        BigInteger value = BigInteger.ZERO;
+        for (int bit = 0; bit < z.length; bit++) {
+            if (z[bit] >= 0 && (wires[z[bit]] & 1L) != 0) {
+                value = value.setBit(bit);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Add random numbers 64 at a time and compare every z bit with the expected sum
+     *
+     * @param rounds The number of batches of 64 additions
+     * @param seed The random seed
+     * @return The z bit positions that were wrong at least once, empty if the netlist adds correctly
+     */
+    BitSet wrongSumBits(int rounds, long seed) {
+        Random random = new Random(seed);
+        int bits = Math.max(x.length, y.length);
+        BitSet wrong = new BitSet();
+        long[] wires = new long[names.length];
+        for (int round = 0; round < rounds; round++) {
+            Arrays.fill(wires, 0L);
+            long[] xs = new long[bits];
+            long[] ys = new long[bits];
+            for (int bit = 0; bit < bits; bit++) {
+                xs[bit] = random.nextLong();
+                ys[bit] = random.nextLong();
+                if (bit < x.length && x[bit] >= 0) {
+                    wires[x[bit]] = xs[bit];
+                }
+                if (bit < y.length && y[bit] >= 0) {
+                    wires[y[bit]] = ys[bit];
+                }
+            }
+            evaluate(wires);
+
+            // Bit-sliced ripple carry reference
+            long carry = 0;
+            for (int bit = 0; bit <= bits; bit++) {
+                long expected = bit < bits ? xs[bit] ^ ys[bit] ^ carry : carry;
+                long actual = bit < z.length && z[bit] >= 0 ? wires[z[bit]] : 0L;
+                if (expected != actual) {
+                    wrong.set(bit);
+                }
+                if (bit < bits) {
+                    carry = (xs[bit] & ys[bit]) | (carry & (xs[bit] ^ ys[bit]));
+                }
+            }
+        }
+        return wrong;
+    }
+
+    /**
+     * Gate outputs breaking the ripple-carry adder structure:
+     * a z wire not driven by XOR (except the final carry), an XOR between internal wires not driving a z wire,
+     * an AND past the first bit not feeding an OR, and an XOR feeding an OR.
+     *
+     * @return The wire names, sorted
+     */
+    List<String> suspiciousWires() {
+        String carryOut = String.format("z%02d", x.length);
+        TreeSet<String> wrong = new TreeSet<>();
+        for (int g = 0; g < op.length; g++) {
+            String output = names[out[g]];
+            if (output.startsWith("z") && op[g] != XOR && !output.equals(carryOut)) {
+                wrong.add(output);
+            }
+            if (op[g] == XOR && !isPort(out[g]) && !isPort(left[g]) && !isPort(right[g])) {
+                wrong.add(output);
+            }
+            if (op[g] == AND && !isFirstInputBit(left[g]) && !isFirstInputBit(right[g])
+                    && feeds(out[g], gate -> op[gate] != OR)) {
+                wrong.add(output);
+            }
+            if (op[g] == XOR && feeds(out[g], gate -> op[gate] == OR)) {
+                wrong.add(output);
+            }
+        }
+        return List.copyOf(wrong);
+    }
+
+    private boolean isPort(int wire) {
+        char prefix = names[wire].charAt(0);
+        return prefix == 'x' || prefix == 'y' || prefix == 'z';
+    }
+
+    private boolean isFirstInputBit(int wire) {
+        return (x.length > 0 && x[0] == wire) || (y.length > 0 && y[0] == wire);
+    }
+
+    private boolean feeds(int wire, IntPredicate gate) {
+        for (int i = consumerStart[wire]; i < consumerStart[wire + 1]; i++) {
+            if (gate.test(consumers[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The netlist with the drivers of two wires exchanged
+     *
+     * @return The netlist, or empty if the swap creates a cycle
+     */
+    Optional<Netlist> swapOutputs(String first, String second) {
+        int a = ids.get(first);
+        int b = ids.get(second);
+        int[] swapped = out.clone();
+        for (int g = 0; g < swapped.length; g++) {
+            if (swapped[g] == a) {
+                swapped[g] = b;
+            } else if (swapped[g] == b) {
+                swapped[g] = a;
+            }
+        }
+        return compile(names, ids, initial, op, left, right, swapped);
+    }
+
+    /**
+     * Pair up the candidate wires so that swapping every pair makes the netlist add correctly,
+     * trying the perfect matchings of the candidates and checking each with random additions
+     *
+     * @param candidates An even number of wire names
+     * @param rounds The number of batches of 64 additions to check a repair with
+     * @return The pairs of wires to swap, or empty if no pairing repairs the adder
+     */
+    Optional<List<List<String>>> findRepair(List<String> candidates, int rounds) {
+        if ((candidates.size() & 1) != 0) {
+            throw new IllegalArgumentException("Swaps need an even number of wires: " + candidates);
+        }
+        return findRepair(this, new ArrayList<>(candidates), new ArrayList<>(), rounds);
+    }
+
+    private static Optional<List<List<String>>> findRepair(Netlist netlist, List<String> remaining,
+                                                          List<List<String>> pairs, int rounds) {
+        if (remaining.isEmpty()) {
+            return netlist.wrongSumBits(rounds, 24L).isEmpty() ? Optional.of(List.copyOf(pairs)) : Optional.empty();
+        }
+        String first = remaining.removeFirst();
+        for (int i = 0; i < remaining.size(); i++) {
+            String second = remaining.remove(i);
+            Optional<Netlist> swapped = netlist.swapOutputs(first, second);
+            if (swapped.isPresent()) {
+                pairs.add(List.of(first, second));
+                Optional<List<List<String>>> repair = findRepair(swapped.get(), remaining, pairs, rounds);
+                pairs.removeLast();
+                if (repair.isPresent()) {
+                    return repair;
+                }
+            }
+            remaining.add(i, second);
+        }
+        remaining.addFirst(first);
+        return Optional.empty();
+    }
+}
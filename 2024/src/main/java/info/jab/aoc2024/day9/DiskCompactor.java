@@ -1,16 +1,15 @@
 package info.jab.aoc2024.day9;
 
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeSet;
-
 import com.putoet.resources.ResourceLines;
 
 import info.jab.aoc.Solver;
 
+import java.util.Arrays;
+
 public class DiskCompactor implements Solver<Long> {
 
+    private static final int MAX_SIZE = 9;
+
     @Override
     public Long solvePartOne(String fileName) {
         var line = ResourceLines.line(fileName);
@@ -27,197 +26,172 @@ public class DiskCompactor implements Solver<Long> {
 
     public long computeChecksum(String input, boolean isPart2) {
         int[] parts = parseInput(input);
-        int totalBlocks = sumParts(parts);
-
-        return isPart2 ? computeChecksumPart2(parts) : computeChecksumPart1(parts, totalBlocks);
+        return isPart2 ? computeChecksumPart2(parts) : computeChecksumPart1(parts);
     }
 
     private int[] parseInput(String input) {
-        int[] parts = new int[input.length()];
-        for (int i = 0; i < input.length(); i++) {
-            parts[i] = Character.getNumericValue(input.charAt(i));
+        String trimmed = input.trim();
+        int[] parts = new int[trimmed.length()];
+        for (int i = 0; i < trimmed.length(); i++) {
+            parts[i] = trimmed.charAt(i) - '0';
         }
         return parts;
     }
 
-    private int sumParts(int[] parts) {
-        int sum = 0;
-        for (int part : parts) {
-            sum += part;
-        }
-        return sum;
-    }
-
-    private int[] populateDisk(int[] parts) {
-        int totalBlocks = sumParts(parts);
-        int[] disk = new int[totalBlocks];
-        int position = 0;
-
-        for (int i = 0; i < parts.length; i++) {
-            int value = (i % 2 == 1) ? -1 : i / 2; // -1 for gaps, file ID for files
-            for (int j = 0; j < parts[i]; j++) {
-                disk[position++] = value;
-            }
-        }
-        return disk;
-    }
-
-    private long computeChecksumPart1(int[] parts, int totalBlocks) {
-        int[] disk = populateDisk(parts);
-        compactDisk(disk, totalBlocks);
-        return calculateChecksum(disk, totalBlocks);
+    /**
+     * Checksum of file id over the blocks [position, position + size)
+     */
+    private static long runChecksum(int fileId, long position, int size) {
+        // position + (position + 1) + ... + (position + size - 1)
+        return fileId * (size * position + (long) size * (size - 1) / 2);
     }
 
     /**
-     * Optimized compaction using two-pointer approach.
-     * Time complexity: O(n) instead of O(n²)
+     * Streaming two-pointer compaction, the disk is never materialised.
+     * The left pointer walks the segments in order, files are emitted as they are, gaps are filled
+     * with blocks taken from the rightmost file that still has blocks left.
+     * Time complexity: O(segments)
      */
-    private void compactDisk(int[] disk, int totalBlocks) {
-        int left = 0;
-        int right = totalBlocks - 1;
+    private long computeChecksumPart1(int[] parts) {
+        int right = (parts.length - 1) & ~1; // last file segment
+        int rightRemaining = right >= 0 ? parts[right] : 0;
+        long position = 0;
+        long sum = 0;
 
-        while (left < right) {
-            if (disk[left] == -1) {
-                // Find next non-gap from right
-                while (right > left && disk[right] == -1) {
-                    right--;
-                }
-                if (right > left) {
-                    disk[left] = disk[right];
-                    disk[right] = -1;
-                    right--;
+        int left = 0;
+        for (; left < right; left++) {
+            if ((left & 1) == 0) {
+                sum += runChecksum(left / 2, position, parts[left]);
+                position += parts[left];
+                continue;
+            }
+            int gap = parts[left];
+            while (gap > 0 && left < right) {
+                int moved = Math.min(gap, rightRemaining);
+                sum += runChecksum(right / 2, position, moved);
+                position += moved;
+                gap -= moved;
+                rightRemaining -= moved;
+                if (rightRemaining == 0) {
+                    right -= 2;
+                    rightRemaining = parts[right];
                 }
             }
-            left++;
         }
-    }
-
-    private long calculateChecksum(int[] disk, int totalBlocks) {
-        long sum = 0;
-        for (int i = 0; i < totalBlocks; i++) {
-            if (disk[i] != -1) {
-                sum += (long) i * disk[i];
-            }
+        // What is left of the file the right pointer stopped on, unless the left pointer already emitted it
+        if (left == right) {
+            sum += runChecksum(right / 2, position, rightRemaining);
         }
         return sum;
     }
 
     /**
-     * Optimized Part 2 using TreeSet sorted by position for gap management.
-     * Time complexity: O(n log n) - TreeSet operations are O(log n)
+     * Whole-file compaction with a gap index: one min-heap of gap start positions per gap length 1 to 9.
+     * The leftmost gap that fits a file of size s is the smallest head among the heaps of lengths s to 9,
+     * what is left of a used gap moves to the heap of its new length.
+     * Time complexity: O(n log n)
      */
     private long computeChecksumPart2(int[] parts) {
-        int[] cumulativePositions = precomputeCumulativePositions(parts);
-        Map<Integer, int[]> starting = new HashMap<>();
-        Map<Integer, GapInfo> gapsById = new HashMap<>();
-        populateFileAndGapMaps(parts, cumulativePositions, starting, gapsById);
-
-        // Use TreeSet sorted by position for efficient gap management
-        TreeSet<GapInfo> gapSet = createGapSet(gapsById);
-
-        reassignFilesToGaps(parts, starting, gapsById, gapSet);
-
-        return calculateChecksumFromFiles(starting);
-    }
-
-    private int[] precomputeCumulativePositions(int[] parts) {
-        int[] cumulativePositions = new int[parts.length + 1];
-        for (int i = 0; i < parts.length; i++) {
-            cumulativePositions[i + 1] = cumulativePositions[i] + parts[i];
+        IntMinHeap[] gaps = new IntMinHeap[MAX_SIZE + 1];
+        for (int length = 1; length <= MAX_SIZE; length++) {
+            gaps[length] = new IntMinHeap(parts.length / 2 / MAX_SIZE + 16);
         }
-        return cumulativePositions;
-    }
 
-    private void populateFileAndGapMaps(int[] parts, int[] cumulativePositions,
-                                        Map<Integer, int[]> starting, Map<Integer, GapInfo> gaps) {
+        int[] fileStart = new int[(parts.length + 1) / 2];
+        int position = 0;
         for (int i = 0; i < parts.length; i++) {
-            int start = cumulativePositions[i];
-            if (i % 2 == 0) {
-                starting.put(i / 2, new int[]{start, parts[i]});
-            } else {
-                gaps.put(i / 2, new GapInfo(start, parts[i], i / 2));
+            if ((i & 1) == 0) {
+                fileStart[i / 2] = position;
+            } else if (parts[i] > 0) {
+                gaps[parts[i]].push(position);
             }
+            position += parts[i];
         }
-    }
 
-    private TreeSet<GapInfo> createGapSet(Map<Integer, GapInfo> gaps) {
-        Comparator<GapInfo> gapComparator = Comparator.comparingInt(GapInfo::position)
-                .thenComparingInt(GapInfo::gapId);
-        TreeSet<GapInfo> gapSet = new TreeSet<>(gapComparator);
-        gapSet.addAll(gaps.values());
-        return gapSet;
-    }
-
-    private void reassignFilesToGaps(int[] parts, Map<Integer, int[]> starting,
-                                     Map<Integer, GapInfo> gapsById, TreeSet<GapInfo> gapSet) {
-        // Process files from highest ID to lowest
-        int maxFileId = parts.length / 2;
-        for (int fileId = maxFileId; fileId >= 0; fileId--) {
-            if (!starting.containsKey(fileId)) {
+        long sum = 0;
+        for (int fileId = fileStart.length - 1; fileId >= 0; fileId--) {
+            int size = parts[2 * fileId];
+            if (size == 0) {
                 continue;
             }
+            int start = fileStart[fileId];
+
+            int bestLength = 0;
+            int bestStart = start;
+            for (int length = size; length <= MAX_SIZE; length++) {
+                if (!gaps[length].isEmpty() && gaps[length].peek() < bestStart) {
+                    bestStart = gaps[length].peek();
+                    bestLength = length;
+                }
+            }
 
-            int fileSize = starting.get(fileId)[1];
-            GapInfo fittingGap = findFirstFittingGap(gapSet, fileId, fileSize);
-
-            if (fittingGap != null) {
-                updateFilePosition(starting, fileId, fittingGap, fileSize);
-                updateGapSet(gapsById, gapSet, fittingGap, fileSize);
+            if (bestLength > 0) {
+                gaps[bestLength].pop();
+                if (bestLength > size) {
+                    gaps[bestLength - size].push(bestStart + size);
+                }
+                start = bestStart;
             }
+            sum += runChecksum(fileId, start, size);
         }
+        return sum;
     }
 
     /**
-     * Finds first fitting gap in TreeSet sorted by position.
-     * Since TreeSet is sorted by position, first matching gap has smallest position.
-     * Time complexity: O(n) in worst case, but early termination helps
+     * Binary min-heap of ints, avoids boxing millions of gap positions
      */
-    private GapInfo findFirstFittingGap(TreeSet<GapInfo> gapSet, int fileId, int fileSize) {
-        for (GapInfo gap : gapSet) {
-            if (gap.gapId() < fileId && gap.size() >= fileSize) {
-                return gap;
-            }
+    private static final class IntMinHeap {
+        private int[] heap;
+        private int size;
+
+        IntMinHeap(int capacity) {
+            this.heap = new int[capacity];
         }
-        return null;
-    }
 
-    private void updateFilePosition(Map<Integer, int[]> starting, int fileId,
-                                    GapInfo fittingGap, int fileSize) {
-        starting.put(fileId, new int[]{fittingGap.position(), fileSize});
-    }
+        boolean isEmpty() {
+            return size == 0;
+        }
 
-    /**
-     * Updates gap data structures after placing a file in a gap.
-     * Removes the gap and adds remaining gap if any.
-     */
-    private void updateGapSet(Map<Integer, GapInfo> gapsById, TreeSet<GapInfo> gapSet,
-                               GapInfo fittingGap, int fileSize) {
-        gapSet.remove(fittingGap);
-        if (fittingGap.size() > fileSize) {
-            GapInfo remainingGap = new GapInfo(
-                    fittingGap.position() + fileSize,
-                    fittingGap.size() - fileSize,
-                    fittingGap.gapId()
-            );
-            gapSet.add(remainingGap);
-            gapsById.put(fittingGap.gapId(), remainingGap);
-        } else {
-            gapsById.remove(fittingGap.gapId());
+        int peek() {
+            return heap[0];
         }
-    }
 
-    private long calculateChecksumFromFiles(Map<Integer, int[]> starting) {
-        long sum = 0;
-        for (Map.Entry<Integer, int[]> entry : starting.entrySet()) {
-            int fileId = entry.getKey();
-            int[] fileInfo = entry.getValue();
-            int start = fileInfo[0];
-            int size = fileInfo[1];
-            for (int i = start; i < start + size; i++) {
-                sum += (long) i * fileId;
+        void push(int value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
             }
+            heap[i] = value;
         }
-        return sum;
-    }
 
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
 }
@@ -2,6 +2,8 @@ package info.jab.aoc2024.day11;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 class Day11Test {
@@ -35,4 +37,30 @@ class Day11Test {
         then(result).isEqualTo(261936432123724L);
     }
 
+    @Test
+    void should_trace_distinct_and_total_stones_per_blink() {
+        //Given
+        String line = "125 17";
+
+        //When
+        var stats = BlinkEngine.trace(line, 6);
+        var distinct = BlinkEngine.distinctStones(line, 2000);
+
+        //Then
+        then(stats.getLast()).isEqualTo(new BlinkEngine.BlinkStats(6, 15, 22));
+        then(distinct[5]).isEqualTo(15);
+        then(distinct[1999]).isEqualTo(54);
+    }
+
+    @Test
+    void should_count_many_lines_in_parallel() {
+        //Given
+        var lines = List.of("125 17", "6 11 33023 4134 564 0 8922422 688775");
+
+        //When
+        var result = BlinkEngine.countAll(lines, 25);
+
+        //Then
+        then(result).containsExactly(55312L, 220999L);
+    }
 }
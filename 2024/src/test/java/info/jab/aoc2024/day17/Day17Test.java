@@ -67,4 +67,16 @@ class Day17Test {
         then(result).isEqualTo("105875099912602");
     }
 
+    @Test
+    void should_match_brute_force_search_in_part2() {
+        //Given
+        String fileName = "/day17/day17-input.txt";
+
+        //When
+        var computer = new ChronospatialComputer2();
+
+        //Then
+        then(computer.part23(fileName)).isEqualTo(computer.part22(fileName));
+    }
+
 }
@@ -2,6 +2,8 @@ package info.jab.aoc2024.day19;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
 
 
@@ -58,4 +60,20 @@ class Day19Test {
         //Then
         then(result).isEqualTo(730121486795169L);
     }
+
+    @Test
+    void should_count_overlapping_patterns_with_the_matcher() {
+        //Given
+        var matcher = new TowelMatcher(Set.of("r", "rr", "rrr", "wr"));
+
+        //When
+        var ways = matcher.countWays("rrrr");
+        var possible = matcher.canForm("wrrwr");
+        var impossible = matcher.canForm("rwur");
+
+        //Then
+        then(ways).isEqualTo(7L);
+        then(possible).isTrue();
+        then(impossible).isFalse();
+    }
 }
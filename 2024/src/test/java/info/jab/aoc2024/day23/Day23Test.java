@@ -1,6 +1,9 @@
 package info.jab.aoc2024.day23;
 
 import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 class Day23Test {
@@ -56,4 +59,33 @@ class Day23Test {
         //Then
         then(result).isEqualTo("am,aq,by,ge,gf,ie,mr,mt,rw,sn,te,yi,zb");
     }
+
+    @Test
+    void should_find_triangles_and_largest_clique_in_network_graph() {
+        //Given
+        var graph = NetworkGraph.parse(List.of(
+            "ta-bb", "ta-cc", "ta-dd", "bb-cc", "bb-dd", "cc-dd", "dd-ee", "ee-tf", "tf-dd"));
+
+        //When
+        var triangles = graph.countTriangles(name -> name.startsWith("t"));
+        var clique = graph.maximumClique();
+
+        //Then
+        then(graph.size()).isEqualTo(6);
+        then(triangles).isEqualTo(4L);
+        then(clique).containsExactly("bb", "cc", "dd", "ta");
+    }
+
+    @Test
+    void should_break_ties_between_largest_cliques_by_name() {
+        //Given
+        var graph = NetworkGraph.parse(List.of(
+            "zz-yy", "yy-xx", "xx-zz", "cc-bb", "bb-dd", "dd-cc", "aa-zz"));
+
+        //When
+        var clique = graph.maximumClique();
+
+        //Then
+        then(clique).containsExactly("bb", "cc", "dd");
+    }
 }
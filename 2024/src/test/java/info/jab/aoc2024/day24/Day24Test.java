@@ -1,6 +1,13 @@
 package info.jab.aoc2024.day24;
 
 import static org.assertj.core.api.BDDAssertions.then;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.putoet.resources.ResourceLines;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -48,4 +55,38 @@ class Day24Test {
         //Then
         then(result).isEqualTo("cqm,mps,vcv,vjv,vwp,z13,z19,z25");
     }
+
+    @Test
+    void should_repair_the_adder_by_swapping_the_suspicious_wires() {
+        //Given
+        var netlist = Netlist.parse(ResourceLines.list("/day24/day24-input.txt"));
+        var suspicious = netlist.suspiciousWires();
+
+        //When
+        var repair = netlist.findRepair(suspicious, 16);
+
+        //Then
+        then(netlist.wrongSumBits(16, 1L)).isNotEmpty();
+        then(repair).contains(List.of(
+            List.of("cqm", "vjv"), List.of("mps", "z25"), List.of("vcv", "z13"), List.of("vwp", "z19")));
+    }
+
+    @Test
+    void should_output_numbers_wider_than_64_bits() {
+        //Given
+        var lines = new ArrayList<String>();
+        for (int bit = 0; bit < 70; bit++) {
+            lines.add("x%02d: 1".formatted(bit));
+            lines.add("y%02d: 0".formatted(bit));
+        }
+        for (int bit = 0; bit < 70; bit++) {
+            lines.add("x%02d XOR y%02d -> z%02d".formatted(bit, bit, bit));
+        }
+
+        //When
+        var result = Netlist.parse(lines).output();
+
+        //Then
+        then(result).isEqualTo(BigInteger.ONE.shiftLeft(70).subtract(BigInteger.ONE));
+    }
 }
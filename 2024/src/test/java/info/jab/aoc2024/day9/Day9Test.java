@@ -60,4 +60,18 @@ class Day9Test {
         then(result).isEqualTo(6265268809555L);
     }
 
+    @Test
+    void should_skip_empty_files_and_gaps() {
+        //Given
+        var diskCompactor = new DiskCompactor();
+        String diskMap = "12021";
+
+        //When
+        var part1 = diskCompactor.computeChecksum(diskMap, false);
+        var part2 = diskCompactor.computeChecksum(diskMap, true);
+
+        //Then
+        then(part1).isEqualTo(2L);
+        then(part2).isEqualTo(2L);
+    }
 }
@@ -10,6 +10,7 @@ public class Day4Benchmark { //NOSONAR java:S5786 - JMH @State annotation requir
     public static class St {
         GridNeighbor gridNeighbor = new GridNeighbor();
         GridNeighbor2 gridNeighbor2 = new GridNeighbor2();
+        GridNeighbor3 gridNeighbor3 = new GridNeighbor3();
         String fileName = "/day4/day4-input.txt";
     }
 
@@ -32,5 +33,14 @@ public class Day4Benchmark { //NOSONAR java:S5786 - JMH @State annotation requir
     public void gridNeighbor2_part2(St st) {
         st.gridNeighbor2.solvePartTwo(st.fileName);
     }
-}
 
+    @Benchmark
+    public void gridNeighbor3_part1(St st) {
+        st.gridNeighbor3.solvePartOne(st.fileName);
+    }
+
+    @Benchmark
+    public void gridNeighbor3_part2(St st) {
+        st.gridNeighbor3.solvePartTwo(st.fileName);
+    }
+}
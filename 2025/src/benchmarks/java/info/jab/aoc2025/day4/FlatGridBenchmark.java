@@ -0,0 +1,75 @@
+package info.jab.aoc2025.day4;
+
+import com.putoet.grid.FlatGrid;
+import com.putoet.grid.Grid;
+import com.putoet.grid.GridDirections;
+import com.putoet.grid.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Compares the boxed Point based Grid with the packed index FlatGrid on a 2000x2000 map,
+ * counting the '@' cells with fewer than 4 '@' neighbours (day 4 part one rule).
+ */
+public class FlatGridBenchmark { //NOSONAR java:S5786 - JMH @State annotation requires public class
+
+    private static final int SIZE = 2000;
+    private static final char TARGET_CELL = '@';
+    private static final int MIN_NEIGHBORS = 4;
+
+    @State(Scope.Thread)
+    public static class St {
+        Grid grid;
+        FlatGrid flatGrid;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(42);
+            final char[][] data = new char[SIZE][SIZE];
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    data[y][x] = random.nextInt(10) < 7 ? TARGET_CELL : '.';
+                }
+            }
+            grid = new Grid(data);
+            flatGrid = new FlatGrid(data);
+        }
+    }
+
+    @Benchmark
+    public long grid_countAccessible(St st) {
+        long count = 0;
+        for (Point point : st.grid.findAll(c -> c == TARGET_CELL)) {
+            if (GridDirections.countNeighbors(st.grid, point, c -> c == TARGET_CELL, true) < MIN_NEIGHBORS) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long flatGrid_countAccessible(St st) {
+        final FlatGrid flatGrid = st.flatGrid;
+        final long[] count = new long[1];
+        flatGrid.forEach(TARGET_CELL, index -> {
+            if (flatGrid.countNeighbours(index, TARGET_CELL, true) < MIN_NEIGHBORS) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Benchmark
+    public long grid_count(St st) {
+        return st.grid.count(TARGET_CELL);
+    }
+
+    @Benchmark
+    public long flatGrid_count(St st) {
+        return st.flatGrid.count(TARGET_CELL);
+    }
+}
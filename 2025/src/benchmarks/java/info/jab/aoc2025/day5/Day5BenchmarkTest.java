@@ -12,6 +12,7 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.profile.JavaFlightRecorderProfiler;
 
 /**
@@ -51,6 +52,7 @@ class Day5BenchmarkTest {
                         "-XX:HeapDumpPath=src/benchmarks/resources/benchmarks/day5/heap-dump.hprof",
                         "-XX:+UnlockDiagnosticVMOptions"
                 )
+                .addProfiler(GCProfiler.class)
                 .addProfiler(JavaFlightRecorderProfiler.class, "dir=src/benchmarks/resources/benchmarks/day5;config=profile")
                 .build();
 
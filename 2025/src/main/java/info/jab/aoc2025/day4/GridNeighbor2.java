@@ -2,6 +2,7 @@ package info.jab.aoc2025.day4;
 
 import module java.base;
 
+import com.putoet.grid.FlatGrid;
 import com.putoet.grid.Grid;
 import com.putoet.grid.GridDirections;
 import com.putoet.grid.GridUtils;
@@ -19,6 +20,8 @@ import info.jab.aoc.Solver;
  * - Employs immutable collections where possible
  * - Separates pure functions from side effects
  * - Parallelizes independent neighbor counting operations
+ * - Part two peels incrementally: per-cell neighbor counters and a work queue,
+ *   so the total work is proportional to the number of removals instead of waves x cells
  */
 public final class GridNeighbor2 implements Solver<Integer> {
 
@@ -26,9 +29,6 @@ public final class GridNeighbor2 implements Solver<Integer> {
     private static final char EMPTY_CELL = '.';
     private static final int MIN_NEIGHBORS = 4;
 
-    // Reusable buffer for cells to remove to avoid allocations in hot loop
-    private final List<Point> cellsToRemoveBuffer = new ArrayList<>(1000);
-
     /**
      * Counts '@' symbols that have fewer than 4 neighbors.
      * Uses parallel Stream API for declarative processing with improved performance.
@@ -81,60 +81,73 @@ public final class GridNeighbor2 implements Solver<Integer> {
     /**
      * Iteratively removes '@' symbols that have fewer than 4 neighbors
      * until no more can be removed, then returns the total count removed.
-     * Uses an Imperative approach for clarity.
+     * Uses the incremental peeling mode.
      *
      * @param fileName The input file name
      * @return The total number of cells removed
      */
     @Override
     public Integer solvePartTwo(final String fileName) {
-        final Grid grid = createGrid(fileName);
-
-        List<Point> cellsToRemove = findCellsToRemove(grid);
-        int totalRemoved = 0;
-
-        while (!cellsToRemove.isEmpty()) {
-            final int cellsRemovedThisIteration = cellsToRemove.size();
-            removeCells(grid, cellsToRemove);
-            totalRemoved += cellsRemovedThisIteration;
-            cellsToRemove = findCellsToRemove(grid);
-        }
-
-        return totalRemoved;
+        return peel(fileName).totalRemoved();
     }
 
     /**
-     * Finds all cells that should be removed.
-     * Optimized: Reuses buffer to avoid allocations in iterative scenarios.
-     * Uses imperative loop instead of stream to reduce overhead.
+     * Incremental peeling: removes '@' cells with fewer than 4 neighbors wave by wave.
+     * <p>
+     * Every '@' cell keeps a live-neighbor counter. The first wave is every cell whose counter
+     * starts below the minimum. When a wave is removed, only the counters of the neighbors of the
+     * removed cells are decremented, and a neighbor whose counter drops below the minimum is
+     * enqueued for the next wave. Each cell is enqueued at most once, so the total work is
+     * proportional to the number of removals rather than waves x cells.
+     * Cells are addressed by packed FlatGrid indices, so no Point is allocated.
      *
-     * @param grid The grid
-     * @return A list of points to remove (copy of buffer)
+     * @param fileName The input file name
+     * @return The peeling statistics: total, cells removed per wave and queue high-water mark
      */
-    private List<Point> findCellsToRemove(final Grid grid) {
-        cellsToRemoveBuffer.clear(); // Reuse buffer instead of creating new list
-
-        for (final Point point : grid.findAll(c -> c == TARGET_CELL)) {
-            if (hasFewerThanMinimumNeighbors(grid, point)) {
-                cellsToRemoveBuffer.add(point);
+    public PeelingStats peel(final String fileName) {
+        final FlatGrid grid = new FlatGrid(createGrid(fileName).grid());
+        final int[] neighbours = grid.neighbours8();
+        final byte[] counts = new byte[grid.stride() * (grid.height() + 2)];
+        final boolean[] queued = new boolean[counts.length];
+        final int[] queue = new int[grid.width() * grid.height()];
+
+        int tail = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                final int index = grid.index(x, y);
+                if (grid.at(index) == TARGET_CELL) {
+                    counts[index] = (byte) grid.countNeighbours(index, TARGET_CELL, true);
+                    if (counts[index] < MIN_NEIGHBORS) {
+                        queued[index] = true;
+                        queue[tail++] = index;
+                    }
+                }
             }
         }
 
-        return new ArrayList<>(cellsToRemoveBuffer); // Copy only when needed
-    }
-
-    /**
-     * Mutates the grid by removing cells at the specified points.
-     * Optimized: Uses imperative loop instead of forEach to reduce lambda overhead.
-     * This is the only mutation point in the algorithm, isolated for clarity.
-     *
-     * @param grid     The grid to mutate
-     * @param toRemove The list of points to remove
-     */
-    private void removeCells(final Grid grid, final List<Point> toRemove) {
-        // Use imperative loop instead of forEach to avoid lambda allocation overhead
-        for (final Point point : toRemove) {
-            grid.set(point, EMPTY_CELL);
+        final List<Integer> removedPerWave = new ArrayList<>();
+        int head = 0;
+        int highWaterMark = tail;
+        while (head < tail) {
+            final int waveEnd = tail;
+            for (int i = head; i < waveEnd; i++) {
+                grid.setAt(queue[i], EMPTY_CELL);
+            }
+            for (int i = head; i < waveEnd; i++) {
+                final int removed = queue[i];
+                for (final int offset : neighbours) {
+                    final int neighbour = removed + offset;
+                    if (grid.at(neighbour) == TARGET_CELL && --counts[neighbour] < MIN_NEIGHBORS && !queued[neighbour]) {
+                        queued[neighbour] = true;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            removedPerWave.add(waveEnd - head);
+            head = waveEnd;
+            highWaterMark = Math.max(highWaterMark, tail - head);
         }
+
+        return new PeelingStats(tail, removedPerWave, highWaterMark);
     }
 }
@@ -0,0 +1,61 @@
+package info.jab.aoc2025.day4;
+
+import module java.base;
+
+import com.putoet.grid.GridUtils;
+import com.putoet.grid.LifeAutomaton;
+import com.putoet.resources.ResourceLines;
+import info.jab.aoc.Solver;
+
+/**
+ * Bit-parallel solver for counting and removing grid cells based on neighbor count.
+ * The '@' cells are loaded into a LifeAutomaton, which stores each row as a long bitset
+ * and computes the 8-neighbor counts of 64 cells at once with bit-sliced adders.
+ *
+ * Performance optimizations:
+ * - No Point or List allocation per cell, the whole grid is a long[] per generation
+ * - A removal wave is a single "peel" pass over the bitsets
+ * - Large grids are processed in parallel by bands of rows
+ */
+public final class GridNeighbor3 implements Solver<Integer> {
+
+    private static final char TARGET_CELL = '@';
+    private static final int MIN_NEIGHBORS = 4;
+
+    /**
+     * Counts '@' symbols that have fewer than 4 neighbors.
+     * This is exactly the number of cells removed by the first peeling wave.
+     *
+     * @param fileName The input file name
+     * @return The count of '@' symbols with fewer than 4 neighbors
+     */
+    @Override
+    public Integer solvePartOne(final String fileName) {
+        return (int) createAutomaton(fileName).peel(MIN_NEIGHBORS);
+    }
+
+    /**
+     * Iteratively removes '@' symbols that have fewer than 4 neighbors
+     * until no more can be removed, then returns the total count removed.
+     *
+     * @param fileName The input file name
+     * @return The total number of cells removed
+     */
+    @Override
+    public Integer solvePartTwo(final String fileName) {
+        return (int) createAutomaton(fileName).peelAll(MIN_NEIGHBORS);
+    }
+
+    /**
+     * Creates the bitset automaton from file input.
+     *
+     * @param fileName The input file name
+     * @return A LifeAutomaton with the '@' cells alive
+     */
+    private LifeAutomaton createAutomaton(final String fileName) {
+        final List<String> lines = ResourceLines.list(fileName).stream()
+                .filter(line -> !line.isEmpty())
+                .toList();
+        return LifeAutomaton.of(GridUtils.of(lines), TARGET_CELL);
+    }
+}
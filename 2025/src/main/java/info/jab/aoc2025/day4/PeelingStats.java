@@ -0,0 +1,26 @@
+package info.jab.aoc2025.day4;
+
+import module java.base;
+
+/**
+ * Statistics of an incremental peeling run.
+ *
+ * @param totalRemoved The total number of cells removed
+ * @param removedPerWave The number of cells removed in each wave, in order
+ * @param queueHighWaterMark The largest number of cells waiting in the work queue at a wave boundary
+ */
+public record PeelingStats(int totalRemoved, List<Integer> removedPerWave, int queueHighWaterMark) {
+
+    public PeelingStats {
+        removedPerWave = List.copyOf(removedPerWave);
+    }
+
+    /**
+     * Number of removal waves until the grid became stable.
+     *
+     * @return The number of waves
+     */
+    public int waves() {
+        return removedPerWave.size();
+    }
+}
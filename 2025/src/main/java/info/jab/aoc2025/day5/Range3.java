@@ -2,7 +2,8 @@ package info.jab.aoc2025.day5;
 
 import module java.base;
 
-import com.putoet.resources.ResourceLines;
+import com.putoet.resources.MappedResource;
+import com.putoet.resources.NumberScanner;
 import info.jab.aoc.Solver;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
@@ -23,6 +24,7 @@ import it.unimi.dsi.fastutil.longs.LongList;
  * - LongArrayList eliminates boxing/unboxing overhead for IDs
  * - Direct indexed access improves cache locality
  * - Reduced memory footprint compared to boxed Long collections
+ * - Input is scanned from a memory-mapped MappedResource, no line Strings or boxed ids are created
  */
 public final class Range3 implements Solver<Long> {
 
@@ -35,9 +37,9 @@ public final class Range3 implements Solver<Long> {
      */
     @Override
     public Long solvePartOne(final String fileName) {
-        final List<String> lines = ResourceLines.list(fileName);
-        final RangeProblemInput input = RangeProblemInput.from(lines);
-        return countIdsInIntervals(input);
+        final MappedResource resource = MappedResource.of(fileName);
+        final int separator = separatorLine(resource);
+        return countIdsInIntervals(parseIntervals(resource, separator), parseIds(resource, separator));
     }
 
     /**
@@ -45,12 +47,11 @@ public final class Range3 implements Solver<Long> {
      * Separated from I/O for testability and functional composition.
      * Optimized with FastUtil LongArrayList to avoid boxing overhead.
      *
-     * @param input The input containing intervals and IDs
+     * @param intervals The intervals to check against
+     * @param ids The IDs to count
      * @return The count of IDs contained in any interval
      */
-    private Long countIdsInIntervals(final RangeProblemInput input) {
-        final List<Interval> intervals = input.intervals();
-        final LongList ids = convertToLongList(input.ids());
+    private Long countIdsInIntervals(final List<Interval> intervals, final LongList ids) {
         long count = 0;
         final int idsSize = ids.size();
         for (int i = 0; i < idsSize; i++) {
@@ -63,18 +64,53 @@ public final class Range3 implements Solver<Long> {
     }
 
     /**
-     * Converts a List of Long to FastUtil LongList for better performance.
-     * Pure function for functional composition.
+     * Finds the blank line separating the ranges from the IDs.
      *
-     * @param ids The list of boxed Long values
-     * @return A LongList containing the same values as primitives
+     * @param resource The mapped input
+     * @return The index of the first blank line, or the line count if there is none
      */
-    private static LongList convertToLongList(final List<Long> ids) {
-        final LongList result = new LongArrayList(ids.size());
-        for (final Long id : ids) {
-            result.add(id.longValue());
+    private static int separatorLine(final MappedResource resource) {
+        final int lineCount = resource.lineCount();
+        for (int line = 0; line < lineCount; line++) {
+            if (resource.isBlank(line)) {
+                return line;
+            }
+        }
+        return lineCount;
+    }
+
+    /**
+     * Parses the "start-end" ranges above the separator directly from the mapped bytes.
+     * The '-' is a separator, so both bounds are scanned as unsigned numbers.
+     *
+     * @param resource The mapped input
+     * @param separator The index of the separator line
+     * @return The list of intervals
+     */
+    private static List<Interval> parseIntervals(final MappedResource resource, final int separator) {
+        final List<Interval> intervals = new ArrayList<>(separator);
+        final NumberScanner scanner = resource.scanner(0, separator);
+        while (scanner.hasNext()) {
+            intervals.add(new Interval(scanner.nextUnsignedLong(), scanner.nextUnsignedLong()));
+        }
+        return intervals;
+    }
+
+    /**
+     * Parses the IDs below the separator directly into a LongList.
+     *
+     * @param resource The mapped input
+     * @param separator The index of the separator line
+     * @return The IDs as primitives
+     */
+    private static LongList parseIds(final MappedResource resource, final int separator) {
+        final int lineCount = resource.lineCount();
+        final LongList ids = new LongArrayList(Math.max(0, lineCount - separator - 1));
+        final NumberScanner scanner = resource.scanner(Math.min(separator + 1, lineCount), lineCount);
+        while (scanner.hasNext()) {
+            ids.add(scanner.nextUnsignedLong());
         }
-        return result;
+        return ids;
     }
 
     /**
@@ -104,20 +140,19 @@ public final class Range3 implements Solver<Long> {
      */
     @Override
     public Long solvePartTwo(final String fileName) {
-        final List<String> lines = ResourceLines.list(fileName);
-        final RangeProblemInput input = RangeProblemInput.from(lines);
-        return calculateTotalCoverage(input);
+        final MappedResource resource = MappedResource.of(fileName);
+        return calculateTotalCoverage(parseIntervals(resource, separatorLine(resource)));
     }
 
     /**
      * Pure function that calculates total coverage of merged intervals.
      * Separated from I/O for testability and functional composition.
      *
-     * @param input The input containing intervals and IDs
+     * @param intervals The intervals to merge
      * @return The total number of values covered by merged intervals
      */
-    private Long calculateTotalCoverage(final RangeProblemInput input) {
-        final List<Interval> sortedIntervals = input.intervals().stream()
+    private Long calculateTotalCoverage(final List<Interval> intervals) {
+        final List<Interval> sortedIntervals = intervals.stream()
                 .sorted(Comparator.comparingLong(Interval::start))
                 .toList();
         return mergeIntervals(sortedIntervals).stream()
@@ -2,7 +2,8 @@ package info.jab.aoc2025.day8;
 
 import module java.base;
 
-import com.putoet.resources.ResourceLines;
+import com.putoet.resources.MappedResource;
+import com.putoet.resources.NumberScanner;
 import info.jab.aoc.Solver2;
 import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
@@ -19,6 +20,7 @@ import it.unimi.dsi.fastutil.objects.ObjectList;
  *   <li>IntList for component sizes: Eliminates boxing overhead</li>
  *   <li>Indexed iteration: Avoids iterator overhead</li>
  *   <li>Cached references: Reduces repeated get() calls</li>
+ *   <li>MappedResource input: Parses coordinates from the mapped bytes without intermediate Strings</li>
  * </ul>
  */
 public final class PointCluster3 implements Solver2<Long, String, Integer> {
@@ -74,18 +76,18 @@ public final class PointCluster3 implements Solver2<Long, String, Integer> {
 
     /**
      * Parses points from the input file using FastUtil ObjectArrayList.
+     * Coordinates are scanned directly from the memory-mapped resource, so no line Strings are created.
      *
      * @param fileName the name of the file containing point data
      * @return an ObjectList of Point3D objects
      */
     private ObjectList<Point3D> parsePoints(String fileName) {
-        final List<String> lines = ResourceLines.list(fileName);
+        final MappedResource resource = MappedResource.of(fileName);
         // Pre-allocate with estimated size
-        final ObjectList<Point3D> points = new ObjectArrayList<>(lines.size());
-        for (final String line : lines) {
-            if (!line.trim().isEmpty()) {
-                points.add(Point3D.from(line));
-            }
+        final ObjectList<Point3D> points = new ObjectArrayList<>(resource.lineCount());
+        final NumberScanner scanner = resource.scanner();
+        while (scanner.hasNext()) {
+            points.add(new Point3D(scanner.nextInt(), scanner.nextInt(), scanner.nextInt()));
         }
         return points;
     }
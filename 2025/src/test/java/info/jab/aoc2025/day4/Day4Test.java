@@ -44,4 +44,32 @@ class Day4Test {
         //Then
         then(result).isEqualTo(8437);
     }
+
+    @Test
+    void should_report_peeling_waves_with_sample() {
+        //Given
+        String fileName = "/day4/day4-part2-input-sample.txt";
+
+        //When
+        var stats = new GridNeighbor2().peel(fileName);
+
+        //Then
+        then(stats.totalRemoved()).isEqualTo(43);
+        then(stats.removedPerWave()).containsExactly(13, 12, 7, 5, 2, 1, 1, 1, 1);
+        then(stats.waves()).isEqualTo(9);
+        then(stats.queueHighWaterMark()).isEqualTo(13);
+    }
+
+    @Test
+    void should_solve_day4_with_bit_parallel_solver() {
+        //Given
+        String fileName = "/day4/day4-input.txt";
+
+        //When
+        var solver = new GridNeighbor3();
+
+        //Then
+        then(solver.solvePartOne(fileName)).isEqualTo(1370);
+        then(solver.solvePartTwo(fileName)).isEqualTo(8437);
+    }
 }
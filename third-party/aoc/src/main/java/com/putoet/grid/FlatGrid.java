@@ -0,0 +1,394 @@
+package com.putoet.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A FlatGrid is a GridType stored in a single char array with a row stride. The content is surrounded by a border of
+ * one sentinel cell, so every cell inside the grid has 8 addressable neighbours and neighbour access by index needs no
+ * bounds checks. Cells are addressed by a packed int index, neighbours are found by adding the offsets from
+ * {@link #neighbours4()} or {@link #neighbours8()} to an index.
+ * The index based methods do not create any objects, the Point based methods of GridType are available for existing
+ * callers and behave like those of {@link Grid}.
+ */
+public class FlatGrid implements GridType {
+    /**
+     * The default sentinel character used for the border
+     */
+    public static final char DEFAULT_SENTINEL = '\0';
+
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final char sentinel;
+    private final char[] data;
+    private final int[] neighbours4;
+    private final int[] neighbours8;
+
+    /**
+     * Create a new FlatGrid with the content of the given grid, using the default sentinel
+     * @param grid the grid to use
+     * @throws NullPointerException if the grid is null
+     * @throws IllegalArgumentException if the grid is not rectangular
+     */
+    public FlatGrid(char[][] grid) {
+        this(0, 0, grid, DEFAULT_SENTINEL);
+    }
+
+    /**
+     * Create a new FlatGrid with the content of the given grid and the given minimum x and y positions
+     * @param minX the minimum x position
+     * @param minY the minimum y position
+     * @param grid the grid to use
+     * @param sentinel the character stored in the border around the grid
+     * @throws NullPointerException if the grid is null
+     * @throws IllegalArgumentException if the grid is not rectangular
+     */
+    public FlatGrid(int minX, int minY, char[][] grid, char sentinel) {
+        Objects.requireNonNull(grid);
+
+        if (!GridUtils.isRectangular(grid))
+            throw new IllegalArgumentException("Grid is not rectangular");
+
+        this.minX = minX;
+        this.minY = minY;
+        this.height = grid.length;
+        this.width = grid.length == 0 ? 0 : grid[0].length;
+        this.stride = width + 2;
+        this.sentinel = sentinel;
+        this.data = new char[stride * (height + 2)];
+        Arrays.fill(data, sentinel);
+        for (var y = 0; y < height; y++)
+            System.arraycopy(grid[y], 0, data, (y + 1) * stride + 1, width);
+
+        this.neighbours4 = new int[] { -stride, 1, stride, -1 };
+        this.neighbours8 = new int[] { -stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1 };
+    }
+
+    private FlatGrid(FlatGrid other) {
+        this.minX = other.minX;
+        this.minY = other.minY;
+        this.width = other.width;
+        this.height = other.height;
+        this.stride = other.stride;
+        this.sentinel = other.sentinel;
+        this.data = other.data.clone();
+        this.neighbours4 = other.neighbours4;
+        this.neighbours8 = other.neighbours8;
+    }
+
+    /**
+     * Create a FlatGrid with the content of the given GridType
+     * @param grid the grid to copy, must not be null
+     * @return a FlatGrid with the same content and coordinates
+     */
+    public static FlatGrid of(GridType grid) {
+        Objects.requireNonNull(grid);
+
+        final var data = new char[grid.height()][grid.width()];
+        for (var y = 0; y < grid.height(); y++)
+            for (var x = 0; x < grid.width(); x++)
+                data[y][x] = grid.get(grid.minX() + x, grid.minY() + y);
+
+        return new FlatGrid(grid.minX(), grid.minY(), data, DEFAULT_SENTINEL);
+    }
+
+    @Override
+    public FlatGrid copy() {
+        return new FlatGrid(this);
+    }
+
+    /**
+     * Get the packed index of the given x and y position. Positions one step outside the grid map to the border.
+     * @param x the x position
+     * @param y the y position
+     * @return the packed index
+     */
+    public int index(int x, int y) {
+        return (y - minY + 1) * stride + (x - minX + 1);
+    }
+
+    /**
+     * Get the x position of the given packed index
+     * @param index the packed index
+     * @return the x position
+     */
+    public int x(int index) {
+        return index % stride - 1 + minX;
+    }
+
+    /**
+     * Get the y position of the given packed index
+     * @param index the packed index
+     * @return the y position
+     */
+    public int y(int index) {
+        return index / stride - 1 + minY;
+    }
+
+    /**
+     * Get the Point of the given packed index
+     * @param index the packed index
+     * @return the Point
+     */
+    public Point point(int index) {
+        return Point.of(x(index), y(index));
+    }
+
+    /**
+     * Get the distance between the packed index of two vertically adjacent cells
+     * @return the row stride
+     */
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Get the character stored in the border around the grid
+     * @return the sentinel character
+     */
+    public char sentinel() {
+        return sentinel;
+    }
+
+    /**
+     * Get the neighbour offsets for the 4 cardinal directions, in the order north, east, south, west (y grows down)
+     * @return the offsets to add to a packed index, the array must not be modified
+     */
+    public int[] neighbours4() {
+        return neighbours4;
+    }
+
+    /**
+     * Get the neighbour offsets for all 8 directions
+     * @return the offsets to add to a packed index, the array must not be modified
+     */
+    public int[] neighbours8() {
+        return neighbours8;
+    }
+
+    /**
+     * Get the character at the given packed index, without bounds checks beyond the array itself
+     * @param index the packed index
+     * @return the character, or the sentinel for border cells
+     */
+    public char at(int index) {
+        return data[index];
+    }
+
+    /**
+     * Set the character at the given packed index, without bounds checks beyond the array itself
+     * @param index the packed index, must not be a border cell
+     * @param c the character to set
+     */
+    public void setAt(int index, char c) {
+        data[index] = c;
+    }
+
+    /**
+     * Check if the given packed index is a cell of the grid, and not part of the border
+     * @param index the packed index
+     * @return true if the index is within the grid
+     */
+    public boolean isInside(int index) {
+        final var column = index % stride;
+        final var row = index / stride;
+        return index >= 0 && column >= 1 && column <= width && row >= 1 && row <= height;
+    }
+
+    /**
+     * Count the neighbours of the given packed index that contain the given character
+     * @param index the packed index of a grid cell
+     * @param c the character to count
+     * @param includeDiagonals if true, includes diagonal neighbors (8 directions), otherwise only cardinal (4 directions)
+     * @return the number of matching neighbours
+     */
+    public int countNeighbours(int index, char c, boolean includeDiagonals) {
+        final var offsets = includeDiagonals ? neighbours8 : neighbours4;
+        var count = 0;
+        for (var offset : offsets)
+            if (data[index + offset] == c)
+                count++;
+
+        return count;
+    }
+
+    /**
+     * Call the action with the packed index of every neighbour of the given packed index that is inside the grid
+     * @param index the packed index of a grid cell
+     * @param includeDiagonals if true, includes diagonal neighbors (8 directions), otherwise only cardinal (4 directions)
+     * @param action the action to call, must not be null
+     */
+    public void forEachNeighbour(int index, boolean includeDiagonals, IntConsumer action) {
+        final var offsets = includeDiagonals ? neighbours8 : neighbours4;
+        for (var offset : offsets)
+            if (isInside(index + offset))
+                action.accept(index + offset);
+    }
+
+    /**
+     * Call the action with the packed index of every cell containing the given character, row by row
+     * @param c the character to look for
+     * @param action the action to call, must not be null
+     */
+    public void forEach(char c, IntConsumer action) {
+        for (var row = 1; row <= height; row++) {
+            final var end = row * stride + width;
+            for (var index = row * stride + 1; index <= end; index++)
+                if (data[index] == c)
+                    action.accept(index);
+        }
+    }
+
+    /**
+     * Count how often the given character is present in the grid
+     * @param c the character to count
+     * @return the number of cells containing the character
+     */
+    public int count(char c) {
+        var count = 0;
+        for (var row = 1; row <= height; row++) {
+            final var end = row * stride + width;
+            for (var index = row * stride + 1; index <= end; index++)
+                if (data[index] == c)
+                    count++;
+        }
+        return count;
+    }
+
+    /**
+     * Return the content of this FlatGrid as a Grid
+     * @return a Grid with the same content and coordinates
+     */
+    public Grid toGrid() {
+        final var grid = new char[height][width];
+        for (var y = 0; y < height; y++)
+            System.arraycopy(data, (y + 1) * stride + 1, grid[y], 0, width);
+
+        return new Grid(minX, minX + width, minY, minY + height, grid);
+    }
+
+    private int checkedIndex(int x, int y) {
+        if (x < minX || x >= minX + width) {
+            throw new IllegalArgumentException("x coordinate out of bounds: " + x);
+        }
+        if (y < minY || y >= minY + height) {
+            throw new IllegalArgumentException("y coordinate out of bounds: " + y);
+        }
+
+        return index(x, y);
+    }
+
+    @Override
+    public void set(int x, int y, char c) {
+        data[checkedIndex(x, y)] = c;
+    }
+
+    @Override
+    public void set(Point p, char c) {
+        data[checkedIndex(p.x(), p.y())] = c;
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return data[checkedIndex(x, y)];
+    }
+
+    @Override
+    public char get(Point p) {
+        return data[checkedIndex(p.x(), p.y())];
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        return x >= minX && x < minX + width && y >= minY && y < minY + height;
+    }
+
+    @Override
+    public boolean contains(Point p) {
+        return contains(p.x(), p.y());
+    }
+
+    @Override
+    public int minX() {
+        return minX;
+    }
+
+    @Override
+    public int maxX() {
+        return minX + width;
+    }
+
+    @Override
+    public int minY() {
+        return minY;
+    }
+
+    @Override
+    public int maxY() {
+        return minY + height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public Optional<Point> findFirst(Predicate<Character> predicate) {
+        for (var row = 1; row <= height; row++) {
+            final var end = row * stride + width;
+            for (var index = row * stride + 1; index <= end; index++)
+                if (predicate.test(data[index]))
+                    return Optional.of(point(index));
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Point> findAll(Predicate<Character> predicate) {
+        final var found = new ArrayList<Point>();
+        for (var row = 1; row <= height; row++) {
+            final var end = row * stride + width;
+            for (var index = row * stride + 1; index <= end; index++)
+                if (predicate.test(data[index]))
+                    found.add(point(index));
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        FlatGrid grid = (FlatGrid) obj;
+        return minX == grid.minX && minY == grid.minY && width == grid.width && height == grid.height
+                && sentinel == grid.sentinel && Arrays.equals(data, grid.data);
+    }
+
+    @Override
+    public int hashCode() {
+        var result = Objects.hash(minX, minY, width, height, sentinel);
+        result = 31 * result + Arrays.hashCode(data);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toGrid().toString();
+    }
+}
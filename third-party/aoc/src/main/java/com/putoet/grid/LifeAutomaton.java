@@ -0,0 +1,432 @@
+package com.putoet.grid;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * A LifeAutomaton simulates a life-like cellular automaton on a rectangular board of dead or alive cells. Every row is
+ * stored as a bitset in a long array, and the 8-neighbour counts are computed with bit-sliced adders, so 64 cells are
+ * updated per operation. Cells outside the board are always dead. Cells can be made stuck, they then stay alive
+ * whatever the rule says. Large boards are updated in parallel by bands of rows.
+ */
+public final class LifeAutomaton {
+    /**
+     * Boards with at least this number of words are updated in parallel by default
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int BAND_HEIGHT = 64;
+
+    private final int width;
+    private final int height;
+    private final int words;
+    private final long lastWordMask;
+    private long[] cells;
+    private long[] next;
+    private long[] stuck;
+    private boolean parallel;
+
+    /**
+     * A rule for a life-like automaton, as bitmasks over the number of alive neighbours (0..8). A dead cell becomes
+     * alive if bit n of birth is set, an alive cell stays alive if bit n of survival is set.
+     * @param birth the neighbour counts for which a dead cell becomes alive
+     * @param survival the neighbour counts for which an alive cell stays alive
+     */
+    public record Rule(int birth, int survival) {
+        /**
+         * Conway's Game of Life, B3/S23
+         */
+        public static final Rule CONWAY = of("B3/S23");
+
+        /**
+         * Create a Rule from the usual B/S notation, e.g. "B3/S23"
+         * @param notation the rule in B/S notation
+         * @return the Rule
+         * @throws IllegalArgumentException if the notation is invalid
+         */
+        public static Rule of(String notation) {
+            Objects.requireNonNull(notation);
+
+            final var parts = notation.toUpperCase().split("/");
+            if (parts.length != 2 || !parts[0].startsWith("B") || !parts[1].startsWith("S"))
+                throw new IllegalArgumentException("Invalid rule '" + notation + "', expected e.g. 'B3/S23'");
+
+            return new Rule(mask(parts[0].substring(1), notation), mask(parts[1].substring(1), notation));
+        }
+
+        private static int mask(String counts, String notation) {
+            var mask = 0;
+            for (var c : counts.toCharArray()) {
+                if (c < '0' || c > '8')
+                    throw new IllegalArgumentException("Invalid rule '" + notation + "', neighbour counts are 0..8");
+                mask |= 1 << (c - '0');
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * Create an empty board with the given size
+     * @param width the number of columns
+     * @param height the number of rows
+     * @throws IllegalArgumentException if the width or height is negative
+     */
+    public LifeAutomaton(int width, int height) {
+        if (width < 0 || height < 0)
+            throw new IllegalArgumentException("Invalid board size " + width + "x" + height);
+
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) >>> 6;
+        this.lastWordMask = (width & 63) == 0 ? -1L : (1L << (width & 63)) - 1;
+        this.cells = new long[words * height];
+        this.next = new long[words * height];
+        this.parallel = (long) words * height >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Create a board from a two-dimensional character array
+     * @param grid the board, must be rectangular
+     * @param alive the character of an alive cell, all other characters are dead cells
+     * @return the LifeAutomaton
+     * @throws IllegalArgumentException if the grid is not rectangular
+     */
+    public static LifeAutomaton of(char[][] grid, char alive) {
+        Objects.requireNonNull(grid);
+
+        if (!GridUtils.isRectangular(grid))
+            throw new IllegalArgumentException("Grid is not rectangular");
+
+        final var automaton = new LifeAutomaton(grid.length == 0 ? 0 : grid[0].length, grid.length);
+        for (var y = 0; y < grid.length; y++)
+            for (var x = 0; x < grid[y].length; x++)
+                if (grid[y][x] == alive)
+                    automaton.cells[y * automaton.words + (x >>> 6)] |= 1L << x;
+
+        return automaton;
+    }
+
+    /**
+     * Get the width of the board
+     * @return the number of columns
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Get the height of the board
+     * @return the number of rows
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Enable or disable the parallel update by bands of rows
+     * @param parallel true to update in parallel
+     * @return this LifeAutomaton
+     */
+    public LifeAutomaton parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Check if the cell at the given position is alive
+     * @param x the x position
+     * @param y the y position
+     * @return true if the cell is alive
+     * @throws IllegalArgumentException if the x or y position is outside the board
+     */
+    public boolean isAlive(int x, int y) {
+        return (cells[index(x, y)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Set the cell at the given position dead or alive
+     * @param x the x position
+     * @param y the y position
+     * @param alive the new state of the cell
+     * @throws IllegalArgumentException if the x or y position is outside the board
+     */
+    public void set(int x, int y, boolean alive) {
+        final var index = index(x, y);
+        if (alive)
+            cells[index] |= 1L << x;
+        else
+            cells[index] &= ~(1L << x);
+    }
+
+    /**
+     * Make the cell at the given position stuck, it is alive now and will remain alive
+     * @param x the x position
+     * @param y the y position
+     * @throws IllegalArgumentException if the x or y position is outside the board
+     */
+    public void stick(int x, int y) {
+        final var index = index(x, y);
+        if (stuck == null)
+            stuck = new long[cells.length];
+
+        stuck[index] |= 1L << x;
+        cells[index] |= 1L << x;
+    }
+
+    /**
+     * Make the four corners of the board stuck
+     */
+    public void stickCorners() {
+        if (width == 0 || height == 0)
+            return;
+
+        stick(0, 0);
+        stick(width - 1, 0);
+        stick(0, height - 1);
+        stick(width - 1, height - 1);
+    }
+
+    /**
+     * Count the alive cells
+     * @return the number of alive cells
+     */
+    public long population() {
+        var count = 0L;
+        for (var word : cells)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * Advance the board one generation using the given rule
+     * @param rule the rule to apply, must not be null
+     */
+    public void step(Rule rule) {
+        Objects.requireNonNull(rule);
+
+        forEachBand((from, to) -> {
+            final var counts = new long[4];
+            for (var y = from; y < to; y++)
+                stepRow(y, rule, counts);
+            return 0L;
+        });
+        swap();
+    }
+
+    /**
+     * Advance the board the given number of generations using the given rule
+     * @param rule the rule to apply, must not be null
+     * @param generations the number of generations
+     */
+    public void step(Rule rule, int generations) {
+        for (var generation = 0; generation < generations; generation++)
+            step(rule);
+    }
+
+    /**
+     * Remove, all at once, every alive cell that is not stuck and has fewer than the given number of alive neighbours
+     * @param minNeighbours the minimum number of alive neighbours a cell needs to stay alive
+     * @return the number of cells removed
+     */
+    public long peel(int minNeighbours) {
+        final var removed = forEachBand((from, to) -> {
+            final var counts = new long[4];
+            var count = 0L;
+            for (var y = from; y < to; y++)
+                count += peelRow(y, minNeighbours, counts);
+            return count;
+        });
+        swap();
+        return removed;
+    }
+
+    /**
+     * Keep peeling until no more cells are removed
+     * @param minNeighbours the minimum number of alive neighbours a cell needs to stay alive
+     * @return the total number of cells removed
+     */
+    public long peelAll(int minNeighbours) {
+        var total = 0L;
+        long removed;
+        while ((removed = peel(minNeighbours)) > 0)
+            total += removed;
+        return total;
+    }
+
+    /**
+     * Return the board as a two-dimensional character array
+     * @param alive the character for alive cells
+     * @param dead the character for dead cells
+     * @return the board
+     */
+    public char[][] toGrid(char alive, char dead) {
+        final var grid = new char[height][width];
+        for (var y = 0; y < height; y++)
+            for (var x = 0; x < width; x++)
+                grid[y][x] = isAlive(x, y) ? alive : dead;
+        return grid;
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || x >= width) {
+            throw new IllegalArgumentException("x coordinate out of bounds: " + x);
+        }
+        if (y < 0 || y >= height) {
+            throw new IllegalArgumentException("y coordinate out of bounds: " + y);
+        }
+
+        return y * words + (x >>> 6);
+    }
+
+    private void swap() {
+        final var tmp = cells;
+        cells = next;
+        next = tmp;
+    }
+
+    @FunctionalInterface
+    private interface Band {
+        long apply(int from, int to);
+    }
+
+    private long forEachBand(Band band) {
+        if (!parallel || height <= BAND_HEIGHT)
+            return band.apply(0, height);
+
+        return IntStream.range(0, (height + BAND_HEIGHT - 1) / BAND_HEIGHT)
+                .parallel()
+                .mapToLong(i -> band.apply(i * BAND_HEIGHT, Math.min(height, (i + 1) * BAND_HEIGHT)))
+                .sum();
+    }
+
+    private void stepRow(int y, Rule rule, long[] counts) {
+        final var row = y * words;
+        for (var w = 0; w < words; w++) {
+            neighbourCounts(y, w, counts);
+
+            final var born = matching(counts, rule.birth());
+            final var survives = matching(counts, rule.survival());
+            final var alive = cells[row + w];
+            var result = (alive & survives) | (~alive & born);
+            if (stuck != null)
+                result |= stuck[row + w];
+            next[row + w] = w == words - 1 ? result & lastWordMask : result;
+        }
+    }
+
+    private long peelRow(int y, int minNeighbours, long[] counts) {
+        final var row = y * words;
+        final var fewer = (1 << Math.max(0, Math.min(minNeighbours, 9))) - 1;
+        var removed = 0L;
+        for (var w = 0; w < words; w++) {
+            neighbourCounts(y, w, counts);
+
+            var remove = cells[row + w] & matching(counts, fewer);
+            if (stuck != null)
+                remove &= ~stuck[row + w];
+            next[row + w] = cells[row + w] & ~remove;
+            removed += Long.bitCount(remove);
+        }
+        return removed;
+    }
+
+    /**
+     * Compute the number of alive neighbours of the 64 cells of word w in row y as 4 bit planes (1, 2, 4 and 8),
+     * by adding the 8 shifted neighbour words with a tree of bit-sliced full adders.
+     */
+    private void neighbourCounts(int y, int w, long[] counts) {
+        final var up = y > 0 ? (y - 1) * words : -1;
+        final var row = y * words;
+        final var down = y < height - 1 ? (y + 1) * words : -1;
+
+        final var upLeft = left(up, w);
+        final var upCenter = word(up, w);
+        final var upRight = right(up, w);
+        final var centerLeft = left(row, w);
+        final var centerRight = right(row, w);
+        final var downLeft = left(down, w);
+        final var downCenter = word(down, w);
+        final var downRight = right(down, w);
+
+        // Full adders on the three rows: (sum, carry) with carry of weight 2
+        final var upSum = upLeft ^ upCenter ^ upRight;
+        final var upCarry = (upLeft & upCenter) | (upRight & (upLeft ^ upCenter));
+        final var downSum = downLeft ^ downCenter ^ downRight;
+        final var downCarry = (downLeft & downCenter) | (downRight & (downLeft ^ downCenter));
+        final var centerSum = centerLeft ^ centerRight;
+        final var centerCarry = centerLeft & centerRight;
+
+        // Weight 1
+        final var ones = upSum ^ downSum ^ centerSum;
+        final var onesCarry = (upSum & downSum) | (centerSum & (upSum ^ downSum));
+
+        // Weight 2: add upCarry, downCarry, centerCarry and onesCarry
+        final var twosSum = upCarry ^ downCarry ^ centerCarry;
+        final var twosCarry = (upCarry & downCarry) | (centerCarry & (upCarry ^ downCarry));
+        final var twos = twosSum ^ onesCarry;
+        final var twosCarry2 = twosSum & onesCarry;
+
+        // Weight 4 and 8
+        counts[0] = ones;
+        counts[1] = twos;
+        counts[2] = twosCarry ^ twosCarry2;
+        counts[3] = twosCarry & twosCarry2;
+    }
+
+    private long word(int row, int w) {
+        return row < 0 ? 0L : cells[row + w];
+    }
+
+    /**
+     * The word with for every cell x the state of cell x - 1
+     */
+    private long left(int row, int w) {
+        if (row < 0)
+            return 0L;
+
+        final var carry = w > 0 ? cells[row + w - 1] >>> 63 : 0L;
+        return (cells[row + w] << 1) | carry;
+    }
+
+    /**
+     * The word with for every cell x the state of cell x + 1
+     */
+    private long right(int row, int w) {
+        if (row < 0)
+            return 0L;
+
+        final var carry = w < words - 1 ? cells[row + w + 1] << 63 : 0L;
+        return (cells[row + w] >>> 1) | carry;
+    }
+
+    /**
+     * Return the word with a bit set for every cell whose neighbour count is in the given mask
+     */
+    private static long matching(long[] counts, int mask) {
+        var result = 0L;
+        for (var n = 0; n <= 8; n++) {
+            if ((mask & (1 << n)) == 0)
+                continue;
+
+            result |= ((n & 1) != 0 ? counts[0] : ~counts[0])
+                    & ((n & 2) != 0 ? counts[1] : ~counts[1])
+                    & ((n & 4) != 0 ? counts[2] : ~counts[2])
+                    & ((n & 8) != 0 ? counts[3] : ~counts[3]);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        LifeAutomaton other = (LifeAutomaton) obj;
+        return width == other.width && height == other.height && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(width, height) + Arrays.hashCode(cells);
+    }
+}
@@ -0,0 +1,275 @@
+package com.putoet.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MappedResource provides a byte oriented, zero-copy view on a resource from the classpath. Resources stored as plain
+ * files are memory-mapped, resources packed in a jar are read once into a heap buffer. Lines are exposed as
+ * CharSequence slices over the buffer and numbers can be parsed with a NumberScanner, so no intermediate String is
+ * created unless explicitly requested. The resource name should start with a '/' and is relative to the classpath.
+ * The content is expected to be ASCII encoded.
+ */
+public final class MappedResource {
+    private final ByteBuffer buffer;
+    private final int[] lineStarts;
+    private final int[] lineEnds;
+
+    private MappedResource(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        final var index = indexLines(buffer);
+        this.lineStarts = index[0];
+        this.lineEnds = index[1];
+    }
+
+    /**
+     * Return a MappedResource for the given resource name.
+     * @param resourceName The name of the resource
+     * @throws IllegalArgumentException if the resource does not exist, cannot be read or is larger than 2GB
+     * @return A MappedResource for the given resource name
+     */
+    public static MappedResource of(String resourceName) {
+        final var url = MappedResource.class.getResource(resourceName);
+        if (url == null)
+            throw new IllegalArgumentException("Invalid resource name '" + resourceName + "'");
+
+        try {
+            return new MappedResource("file".equals(url.getProtocol()) ? map(url) : read(url));
+        } catch (URISyntaxException | IOException exc) {
+            throw new IllegalArgumentException("Invalid resource name '" + resourceName + "'", exc);
+        }
+    }
+
+    /**
+     * Return a MappedResource for the given bytes, mostly useful for testing.
+     * @param bytes The content
+     * @return A MappedResource wrapping the given bytes
+     */
+    public static MappedResource of(byte[] bytes) {
+        return new MappedResource(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    private static ByteBuffer map(URL url) throws URISyntaxException, IOException {
+        try (var channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Resource '" + url + "' is too large to map (" + size + " bytes)");
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static ByteBuffer read(URL url) throws IOException {
+        try (InputStream is = url.openStream()) {
+            return ByteBuffer.wrap(is.readAllBytes()).asReadOnlyBuffer();
+        }
+    }
+
+    private static int[][] indexLines(ByteBuffer buffer) {
+        var starts = new int[64];
+        var ends = new int[64];
+        final var limit = buffer.limit();
+        var count = 0;
+        var start = 0;
+        for (var i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = start;
+                ends[count++] = i > start && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                start = i + 1;
+            }
+        }
+
+        // Like Files.lines, a trailing line separator does not produce an extra empty line
+        if (start < limit) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            starts[count] = start;
+            ends[count++] = buffer.get(limit - 1) == '\r' ? limit - 1 : limit;
+        }
+
+        return new int[][] { Arrays.copyOf(starts, count), Arrays.copyOf(ends, count) };
+    }
+
+    /**
+     * Return the number of bytes in the resource.
+     * @return The number of bytes in the resource
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * Return the byte at the given offset.
+     * @param offset The offset in the resource
+     * @return The byte at the given offset
+     */
+    public byte byteAt(int offset) {
+        return buffer.get(offset);
+    }
+
+    /**
+     * Return the number of lines in the resource.
+     * @return The number of lines in the resource
+     */
+    public int lineCount() {
+        return lineStarts.length;
+    }
+
+    /**
+     * Return the offset of the first byte of the given line.
+     * @param line The line index, starting at 0
+     * @return The offset of the first byte of the line
+     */
+    public int lineStart(int line) {
+        return lineStarts[line];
+    }
+
+    /**
+     * Return the offset just after the last byte of the given line, excluding the line separator.
+     * @param line The line index, starting at 0
+     * @return The exclusive end offset of the line
+     */
+    public int lineEnd(int line) {
+        return lineEnds[line];
+    }
+
+    /**
+     * Return true if the given line only contains whitespace.
+     * @param line The line index, starting at 0
+     * @return true if the line is blank
+     */
+    public boolean isBlank(int line) {
+        for (var i = lineStarts[line]; i < lineEnds[line]; i++) {
+            if (buffer.get(i) > ' ')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return the given line as a CharSequence slice over the underlying buffer. No characters are copied.
+     * @param line The line index, starting at 0
+     * @return A CharSequence view on the line
+     */
+    public CharSequence line(int line) {
+        return new ByteSlice(buffer, lineStarts[line], lineEnds[line]);
+    }
+
+    /**
+     * Call the consumer for every line of the resource, passing a CharSequence view on the line.
+     * @param consumer The consumer for each line
+     */
+    public void forEachLine(Consumer<CharSequence> consumer) {
+        for (var line = 0; line < lineStarts.length; line++)
+            consumer.accept(line(line));
+    }
+
+    /**
+     * Return a List of lines (String), like ResourceLines.list, for callers that still need Strings.
+     * @return A List of lines
+     */
+    public List<String> lines() {
+        final var lines = new ArrayList<String>(lineStarts.length);
+        forEachLine(line -> lines.add(line.toString()));
+        return lines;
+    }
+
+    /**
+     * Return a NumberScanner over the whole resource.
+     * @return A NumberScanner over the whole resource
+     */
+    public NumberScanner scanner() {
+        return new NumberScanner(buffer, 0, buffer.limit());
+    }
+
+    /**
+     * Return a NumberScanner over the given line.
+     * @param line The line index, starting at 0
+     * @return A NumberScanner over the line
+     */
+    public NumberScanner scanner(int line) {
+        return new NumberScanner(buffer, lineStarts[line], lineEnds[line]);
+    }
+
+    /**
+     * Return a NumberScanner over the lines from (inclusive) to (exclusive).
+     * @param from The first line index
+     * @param to The line index after the last line
+     * @return A NumberScanner over the lines
+     */
+    public NumberScanner scanner(int from, int to) {
+        if (from >= to)
+            return new NumberScanner(buffer, 0, 0);
+
+        return new NumberScanner(buffer, lineStarts[from], lineEnds[to - 1]);
+    }
+
+    /**
+     * Return all signed integers found on the given line, e.g. for comma separated lists.
+     * @param line The line index, starting at 0
+     * @return The integers on the line
+     */
+    public int[] ints(int line) {
+        return scanner(line).ints();
+    }
+
+    /**
+     * Return all signed longs found on the given line, e.g. for comma separated lists.
+     * @param line The line index, starting at 0
+     * @return The longs on the line
+     */
+    public long[] longs(int line) {
+        return scanner(line).longs();
+    }
+
+    /**
+     * A CharSequence view on a part of the buffer, characters are decoded as ASCII.
+     */
+    private record ByteSlice(ByteBuffer buffer, int start, int end) implements CharSequence {
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start)
+                throw new IndexOutOfBoundsException(index);
+
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > end - start || from > to)
+                throw new IndexOutOfBoundsException("subSequence(" + from + ", " + to + ")");
+
+            return new ByteSlice(buffer, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            final var bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
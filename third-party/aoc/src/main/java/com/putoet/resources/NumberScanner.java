@@ -0,0 +1,139 @@
+package com.putoet.resources;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * NumberScanner parses numbers directly from the bytes of a MappedResource without creating intermediate Strings.
+ * Any byte that is not a digit acts as a separator, so comma separated lists, ranges like "5-8" and one number per line
+ * are all handled the same way. The signed methods treat a '-' directly in front of a digit as a minus sign, the
+ * unsigned methods treat it as a separator.
+ */
+public final class NumberScanner {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    NumberScanner(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.position = from;
+        this.limit = to;
+    }
+
+    /**
+     * Return the current offset of the scanner in the resource.
+     * @return The current offset
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Return true if there is another number before the end of the scanned range.
+     * @return true if there is another number
+     */
+    public boolean hasNext() {
+        return nextDigit() < limit;
+    }
+
+    /**
+     * Return the next signed int.
+     * @throws NoSuchElementException if there are no more numbers
+     * @throws ArithmeticException if the number does not fit in an int
+     * @return The next signed int
+     */
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /**
+     * Return the next unsigned int, a '-' in front of the number is ignored.
+     * @throws NoSuchElementException if there are no more numbers
+     * @throws ArithmeticException if the number does not fit in an int
+     * @return The next unsigned int
+     */
+    public int nextUnsignedInt() {
+        return Math.toIntExact(nextUnsignedLong());
+    }
+
+    /**
+     * Return the next signed long.
+     * @throws NoSuchElementException if there are no more numbers
+     * @throws ArithmeticException if the number does not fit in a long
+     * @return The next signed long
+     */
+    public long nextLong() {
+        final var digit = nextDigit();
+        final var negative = digit > position && buffer.get(digit - 1) == '-';
+        final var value = parseNegated(digit);
+        return negative ? value : Math.negateExact(value);
+    }
+
+    /**
+     * Return the next unsigned long, a '-' in front of the number is ignored.
+     * @throws NoSuchElementException if there are no more numbers
+     * @throws ArithmeticException if the number does not fit in a long
+     * @return The next unsigned long
+     */
+    public long nextUnsignedLong() {
+        return Math.negateExact(parseNegated(nextDigit()));
+    }
+
+    /**
+     * Return all remaining signed numbers as an int array.
+     * @return The remaining numbers
+     */
+    public int[] ints() {
+        var values = new int[16];
+        var count = 0;
+        while (hasNext()) {
+            if (count == values.length)
+                values = Arrays.copyOf(values, count * 2);
+            values[count++] = nextInt();
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Return all remaining signed numbers as a long array.
+     * @return The remaining numbers
+     */
+    public long[] longs() {
+        var values = new long[16];
+        var count = 0;
+        while (hasNext()) {
+            if (count == values.length)
+                values = Arrays.copyOf(values, count * 2);
+            values[count++] = nextLong();
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private int nextDigit() {
+        var i = position;
+        while (i < limit && !isDigit(buffer.get(i)))
+            i++;
+        return i;
+    }
+
+    // The digits are accumulated as a negative number, so that Long.MIN_VALUE can be read too
+    private long parseNegated(int digit) {
+        if (digit >= limit)
+            throw new NoSuchElementException("No more numbers");
+
+        var value = 0L;
+        var i = digit;
+        byte b;
+        while (i < limit && isDigit(b = buffer.get(i))) {
+            value = Math.subtractExact(Math.multiplyExact(value, 10), b - '0');
+            i++;
+        }
+        position = i;
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
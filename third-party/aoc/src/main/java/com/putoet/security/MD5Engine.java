@@ -0,0 +1,288 @@
+package com.putoet.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * MD5 engine for brute force searches over counter suffixed messages, like key + 1, key + 2, ...
+ *
+ * The decimal suffix is written straight into a reusable byte buffer, the digest lands in a reusable
+ * byte[] and filters test the raw digest bytes, so no String or hex text is built per candidate.
+ * The nonce space is split into chunks hashed on all cores, results are delivered in nonce order.
+ * The compression itself is the JDK MD5, which the JIT replaces with an intrinsic.
+ */
+public final class MD5Engine {
+
+    public static final int DIGEST_LENGTH = 16;
+    public static final int HEX_LENGTH = 32;
+
+    private static final int CHUNK = 4096;
+    private static final int MAX_DIGITS = 19;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private MD5Engine() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Test on the raw 16 bytes of a digest
+     */
+    @FunctionalInterface
+    public interface DigestFilter {
+        boolean test(byte[] digest);
+    }
+
+    /**
+     * A nonce whose digest passed the filter
+     *
+     * @param nonce The counter appended to the prefix
+     * @param digest A copy of the 16 digest bytes
+     */
+    public record Match(long nonce, byte[] digest) {
+
+        /**
+         * The value of a hex digit of the digest
+         *
+         * @param index The position in the 32 character hex representation
+         * @return A value from 0 to 15
+         */
+        public int nibble(int index) {
+            return MD5Engine.nibble(digest, index);
+        }
+
+        public String hex() {
+            final byte[] hex = new byte[HEX_LENGTH];
+            toHex(digest, hex, 0);
+            return new String(hex, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Reusable MD5 state for one thread.
+     *
+     * Besides one shot digests a hasher can absorb a message piece by piece and be forked, so searches over
+     * messages sharing a prefix only hash the prefix once: the fork starts from the midstate.
+     */
+    public static final class Hasher {
+        private final MessageDigest md;
+
+        public Hasher() {
+            try {
+                // Suppressed: MD5 is intentionally provided for Advent of Code challenges
+                @SuppressWarnings("java:S4790")
+                final var instance = MessageDigest.getInstance("MD5");
+                this.md = instance;
+            } catch (NoSuchAlgorithmException exc) {
+                throw new IllegalArgumentException(exc.getMessage(), exc);
+            }
+        }
+
+        private Hasher(MessageDigest md) {
+            this.md = md;
+        }
+
+        /**
+         * Absorb message[0, length) into the running digest
+         */
+        public void update(byte[] message, int length) {
+            md.update(message, 0, length);
+        }
+
+        /**
+         * Absorb one byte into the running digest
+         */
+        public void update(byte value) {
+            md.update(value);
+        }
+
+        /**
+         * A hasher holding a copy of the running digest, both continue independently
+         */
+        public Hasher fork() {
+            try {
+                return new Hasher((MessageDigest) md.clone());
+            } catch (CloneNotSupportedException exc) {
+                throw new IllegalStateException(exc.getMessage(), exc);
+            }
+        }
+
+        /**
+         * Finish the running digest into digest[0, 16) and start over with an empty message
+         */
+        public void finish(byte[] digest) {
+            try {
+                md.digest(digest, 0, DIGEST_LENGTH);
+            } catch (DigestException exc) {
+                throw new IllegalArgumentException(exc.getMessage(), exc);
+            }
+        }
+
+        /**
+         * Digest message[0, length) into digest[0, 16)
+         */
+        public void digest(byte[] message, int length, byte[] digest) {
+            update(message, length);
+            finish(digest);
+        }
+
+        /**
+         * Digest message[0, length) and write the 32 lowercase hex digits into hex
+         */
+        public void hexDigest(byte[] message, int length, byte[] digest, byte[] hex) {
+            digest(message, length, digest);
+            toHex(digest, hex, 0);
+        }
+    }
+
+    /**
+     * Filter for digests whose hex representation starts with the given number of zeros
+     *
+     * @param count The number of leading zero hex digits, from 0 to 32
+     * @return The filter
+     */
+    public static DigestFilter leadingZeroNibbles(int count) {
+        if (count < 0 || count > HEX_LENGTH) {
+            throw new IllegalArgumentException("Leading zero nibbles must be between 0 and 32: " + count);
+        }
+        final int fullBytes = count >> 1;
+        final boolean halfByte = (count & 1) == 1;
+        return digest -> {
+            for (int i = 0; i < fullBytes; i++) {
+                if (digest[i] != 0) {
+                    return false;
+                }
+            }
+            return !halfByte || (digest[fullBytes] & 0xF0) == 0;
+        };
+    }
+
+    /**
+     * The lowest nonce in [from, to) whose digest of prefix + nonce passes the filter
+     *
+     * @param prefix The message prefix
+     * @param from The first nonce
+     * @param to The end of the search range, exclusive
+     * @param filter The digest test
+     * @return The nonce, or empty if no nonce in the range passes
+     */
+    public static OptionalLong findFirst(String prefix, long from, long to, DigestFilter filter) {
+        final long[] found = {-1};
+        search(prefix, from, to, filter, match -> {
+            found[0] = match.nonce();
+            return true;
+        });
+        return found[0] < 0 ? OptionalLong.empty() : OptionalLong.of(found[0]);
+    }
+
+    /**
+     * Hash prefix + nonce for the nonces in [from, to) and hand the matches to a consumer in nonce order
+     *
+     * @param prefix The message prefix
+     * @param from The first nonce, not negative
+     * @param to The end of the search range, exclusive
+     * @param filter The digest test
+     * @param onMatch Receives every match in ascending nonce order, returns true to stop the search
+     * @return true if the consumer stopped the search, false if the range was exhausted
+     */
+    public static boolean search(String prefix, long from, long to, DigestFilter filter, Predicate<Match> onMatch) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Invalid nonce range [" + from + ", " + to + ")");
+        }
+
+        final byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        final int chunksPerRound = Runtime.getRuntime().availableProcessors() * 4;
+        long start = from;
+        while (start < to) {
+            final long roundStart = start;
+            final List<List<Match>> chunks = IntStream.range(0, chunksPerRound)
+                    .parallel()
+                    .mapToObj(chunk -> {
+                        final long chunkStart = roundStart + (long) chunk * CHUNK;
+                        return scan(prefixBytes, chunkStart, Math.min(to, chunkStart + CHUNK), filter);
+                    })
+                    .toList();
+            for (List<Match> matches : chunks) {
+                for (Match match : matches) {
+                    if (onMatch.test(match)) {
+                        return true;
+                    }
+                }
+            }
+            start = roundStart + (long) chunksPerRound * CHUNK;
+        }
+        return false;
+    }
+
+    private static List<Match> scan(byte[] prefix, long from, long to, DigestFilter filter) {
+        if (from >= to) {
+            return List.of();
+        }
+
+        final Hasher hasher = new Hasher();
+        final byte[] message = new byte[prefix.length + MAX_DIGITS];
+        final byte[] digest = new byte[DIGEST_LENGTH];
+        System.arraycopy(prefix, 0, message, 0, prefix.length);
+
+        final List<Match> matches = new ArrayList<>();
+        for (long nonce = from; nonce < to; nonce++) {
+            final int length = prefix.length + writeDecimal(nonce, message, prefix.length);
+            hasher.digest(message, length, digest);
+            if (filter.test(digest)) {
+                matches.add(new Match(nonce, digest.clone()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The value of a hex digit of a digest
+     *
+     * @param digest The digest bytes
+     * @param index The position in the hex representation
+     * @return A value from 0 to 15
+     */
+    public static int nibble(byte[] digest, int index) {
+        final int b = digest[index >> 1] & 0xFF;
+        return (index & 1) == 0 ? b >>> 4 : b & 0x0F;
+    }
+
+    /**
+     * Write the lowercase ASCII hex digits of a digest
+     *
+     * @param digest The digest bytes
+     * @param out The output buffer
+     * @param offset The position of the first hex digit
+     */
+    public static void toHex(byte[] digest, byte[] out, int offset) {
+        for (int i = 0; i < digest.length; i++) {
+            final int b = digest[i] & 0xFF;
+            out[offset + (i << 1)] = HEX[b >>> 4];
+            out[offset + (i << 1) + 1] = HEX[b & 0x0F];
+        }
+    }
+
+    /**
+     * Write the decimal digits of a non negative value
+     *
+     * @return The number of digits written
+     */
+    public static int writeDecimal(long value, byte[] out, int offset) {
+        int length = 1;
+        for (long remaining = value; remaining >= 10; remaining /= 10) {
+            length++;
+        }
+        long remaining = value;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            out[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return length;
+    }
+}
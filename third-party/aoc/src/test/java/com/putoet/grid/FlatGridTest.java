@@ -0,0 +1,88 @@
+package com.putoet.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatGridTest {
+    private static final List<String> LINES = List.of(
+            "@.@@",
+            ".@@.",
+            "@@@@"
+    );
+
+    @Test
+    void gridType() {
+        final var grid = new FlatGrid(GridUtils.of(LINES));
+
+        assertEquals(4, grid.width());
+        assertEquals(3, grid.height());
+        assertEquals(4, grid.maxX());
+        assertEquals(3, grid.maxY());
+        assertEquals('@', grid.get(0, 0));
+        assertEquals('.', grid.get(Point.of(1, 0)));
+        assertFalse(grid.contains(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.get(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.set(0, -1, '.'));
+
+        final var reference = new Grid(GridUtils.of(LINES));
+        assertEquals(reference.findAll(c -> c == '@'), grid.findAll(c -> c == '@'));
+        assertEquals(reference.findFirst(c -> c == '.'), grid.findFirst(c -> c == '.'));
+        assertEquals(reference, grid.toGrid());
+    }
+
+    @Test
+    void offsets() {
+        final var grid = new FlatGrid(-7, -13, GridUtils.of(-7, 9, -13, 17, '.'), '#');
+
+        assertTrue(grid.contains(-7, -13));
+        assertFalse(grid.contains(-8, -13));
+        assertTrue(grid.contains(8, 16));
+        assertFalse(grid.contains(8, 17));
+
+        final var index = grid.index(-7, -13);
+        assertEquals(-7, grid.x(index));
+        assertEquals(-13, grid.y(index));
+        assertTrue(grid.isInside(index));
+        assertFalse(grid.isInside(index - 1));
+        assertEquals('#', grid.at(index - grid.stride()));
+        assertEquals(FlatGrid.of(grid.toGrid()).toGrid(), grid.toGrid());
+    }
+
+    @Test
+    void neighbours() {
+        final var grid = new FlatGrid(GridUtils.of(LINES));
+
+        assertEquals(1, grid.countNeighbours(grid.index(0, 0), '@', true));
+        assertEquals(0, grid.countNeighbours(grid.index(0, 0), '@', false));
+        assertEquals(6, grid.countNeighbours(grid.index(2, 1), '@', true));
+
+        final var neighbours = new ArrayList<Point>();
+        grid.forEachNeighbour(grid.index(0, 0), true, index -> neighbours.add(grid.point(index)));
+        assertEquals(List.of(Point.of(1, 0), Point.of(0, 1), Point.of(1, 1)), neighbours);
+    }
+
+    @Test
+    void forEachAndCount() {
+        final var grid = new FlatGrid(GridUtils.of(LINES));
+
+        final var found = new ArrayList<Point>();
+        grid.forEach('.', index -> found.add(grid.point(index)));
+        assertEquals(List.of(Point.of(1, 0), Point.of(0, 1), Point.of(3, 1)), found);
+        assertEquals(9, grid.count('@'));
+    }
+
+    @Test
+    void copy() {
+        final var grid = new FlatGrid(GridUtils.of(LINES));
+        final var copy = grid.copy();
+        assertEquals(grid, copy);
+
+        copy.setAt(copy.index(1, 0), '@');
+        assertNotEquals(grid, copy);
+        assertEquals('.', grid.get(1, 0));
+    }
+}
@@ -0,0 +1,110 @@
+package com.putoet.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LifeAutomatonTest {
+
+    @Test
+    void rule() {
+        assertEquals(new LifeAutomaton.Rule(1 << 3, (1 << 2) | (1 << 3)), LifeAutomaton.Rule.CONWAY);
+        assertEquals(new LifeAutomaton.Rule((1 << 3) | (1 << 6), (1 << 2) | (1 << 3)), LifeAutomaton.Rule.of("b36/s23"));
+        assertThrows(IllegalArgumentException.class, () -> LifeAutomaton.Rule.of("B9/S23"));
+        assertThrows(IllegalArgumentException.class, () -> LifeAutomaton.Rule.of("23/3"));
+    }
+
+    @Test
+    void blinker() {
+        final var automaton = LifeAutomaton.of(GridUtils.of(List.of(
+                ".....",
+                "..#..",
+                "..#..",
+                "..#..",
+                "....."
+        )), '#');
+
+        automaton.step(LifeAutomaton.Rule.CONWAY);
+        assertTrue(GridUtils.gridEquals(GridUtils.of(List.of(
+                ".....",
+                ".....",
+                ".###.",
+                ".....",
+                "....."
+        )), automaton.toGrid('#', '.')));
+
+        automaton.step(LifeAutomaton.Rule.CONWAY);
+        assertEquals(3, automaton.population());
+        assertTrue(automaton.isAlive(2, 1));
+    }
+
+    @Test
+    void stuckCorners() {
+        final var automaton = new LifeAutomaton(3, 3);
+        automaton.stickCorners();
+        automaton.step(LifeAutomaton.Rule.of("B/S"), 3);
+
+        assertEquals(4, automaton.population());
+        assertTrue(automaton.isAlive(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> automaton.isAlive(3, 0));
+    }
+
+    @Test
+    void matchesCellByCellSimulation() {
+        final var random = new Random(18);
+        final var width = 130;
+        final var height = 150;
+        var cells = new boolean[height][width];
+        final var automaton = new LifeAutomaton(width, height).parallel(true);
+        for (var y = 0; y < height; y++)
+            for (var x = 0; x < width; x++) {
+                cells[y][x] = random.nextBoolean();
+                automaton.set(x, y, cells[y][x]);
+            }
+
+        for (var generation = 0; generation < 10; generation++) {
+            final var next = new boolean[height][width];
+            for (var y = 0; y < height; y++)
+                for (var x = 0; x < width; x++) {
+                    final var neighbours = neighbours(cells, x, y);
+                    next[y][x] = cells[y][x] ? neighbours == 2 || neighbours == 3 : neighbours == 3;
+                }
+            cells = next;
+            automaton.step(LifeAutomaton.Rule.CONWAY);
+        }
+
+        for (var y = 0; y < height; y++)
+            for (var x = 0; x < width; x++)
+                assertEquals(cells[y][x], automaton.isAlive(x, y), "cell " + x + "," + y);
+    }
+
+    @Test
+    void peel() {
+        final var automaton = LifeAutomaton.of(GridUtils.of(List.of(
+                "###.#",
+                "###..",
+                "###.."
+        )), '#');
+
+        assertEquals(5, automaton.peel(4));
+        assertEquals(5, automaton.population());
+        assertEquals(5, automaton.peelAll(4));
+        assertEquals(0, automaton.population());
+    }
+
+    private static int neighbours(boolean[][] cells, int x, int y) {
+        var count = 0;
+        for (var dy = -1; dy <= 1; dy++)
+            for (var dx = -1; dx <= 1; dx++) {
+                final var nx = x + dx;
+                final var ny = y + dy;
+                if ((dx != 0 || dy != 0) && ny >= 0 && ny < cells.length && nx >= 0 && nx < cells[0].length
+                        && cells[ny][nx])
+                    count++;
+            }
+        return count;
+    }
+}
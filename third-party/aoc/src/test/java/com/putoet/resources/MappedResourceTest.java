@@ -0,0 +1,66 @@
+package com.putoet.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedResourceTest {
+
+    @Test
+    void invalidResource() {
+        assertThrows(IllegalArgumentException.class, () -> MappedResource.of("/does-not-exist.txt"));
+    }
+
+    @Test
+    void lines() {
+        final var resource = MappedResource.of("/file.txt");
+        assertEquals(5, resource.lineCount());
+        assertEquals(ResourceLines.list("/file.txt"), resource.lines());
+    }
+
+    @Test
+    void lineSeparators() {
+        final var resource = MappedResource.of("/numbers.txt");
+        assertEquals(3, resource.lineCount());
+        assertEquals("1,-2,3", resource.line(0).toString());
+        assertTrue(resource.isBlank(1));
+        assertEquals("40-50", resource.line(2).toString());
+        assertEquals(ResourceLines.list("/numbers.txt"), resource.lines());
+    }
+
+    @Test
+    void line() {
+        final var line = MappedResource.of("/numbers.txt").line(2);
+        assertEquals(5, line.length());
+        assertEquals('-', line.charAt(2));
+        assertEquals("50", line.subSequence(3, 5).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> line.charAt(5));
+    }
+
+    @Test
+    void forEachLine() {
+        final var lines = new ArrayList<String>();
+        MappedResource.of("/file.txt").forEachLine(line -> lines.add(line.toString()));
+        assertEquals(List.of("1", "2", "3", "4", "5"), lines);
+    }
+
+    @Test
+    void numbers() {
+        final var resource = MappedResource.of("/numbers.txt");
+        assertArrayEquals(new int[] {1, -2, 3}, resource.ints(0));
+        assertArrayEquals(new long[] {40, -50}, resource.longs(2));
+        assertArrayEquals(new long[] {1, -2, 3, 40, -50}, resource.scanner().longs());
+        assertArrayEquals(new int[] {1, -2, 3}, resource.scanner(0, 2).ints());
+    }
+
+    @Test
+    void bytes() {
+        final var resource = MappedResource.of("a\nb".getBytes());
+        assertEquals(3, resource.size());
+        assertEquals('b', resource.byteAt(2));
+        assertEquals(List.of("a", "b"), resource.lines());
+    }
+}
@@ -0,0 +1,59 @@
+package com.putoet.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberScannerTest {
+
+    private static NumberScanner scanner(String text) {
+        return MappedResource.of(text.getBytes()).scanner();
+    }
+
+    @Test
+    void signed() {
+        final var scanner = scanner("p=-3,14 v=2,-7");
+        assertEquals(-3, scanner.nextInt());
+        assertEquals(14, scanner.nextInt());
+        assertEquals(2, scanner.nextLong());
+        assertEquals(-7, scanner.nextLong());
+        assertFalse(scanner.hasNext());
+        assertThrows(NoSuchElementException.class, scanner::nextInt);
+    }
+
+    @Test
+    void unsigned() {
+        final var scanner = scanner("3350-4021\n12345678901-12345678902");
+        assertEquals(3350, scanner.nextUnsignedInt());
+        assertEquals(4021, scanner.nextUnsignedInt());
+        assertEquals(12345678901L, scanner.nextUnsignedLong());
+        assertEquals(12345678902L, scanner.nextUnsignedLong());
+        assertFalse(scanner.hasNext());
+    }
+
+    @Test
+    void commaSeparated() {
+        assertArrayEquals(new int[] {1, 0, 0, 3, 99}, scanner("1,0,0,3,99\n").ints());
+        assertArrayEquals(new long[] {}, scanner("none").longs());
+    }
+
+    @Test
+    void overflow() {
+        assertThrows(ArithmeticException.class, () -> scanner("12345678901").nextInt());
+        assertEquals(Long.MAX_VALUE, scanner("9223372036854775807").nextLong());
+        assertEquals(Long.MIN_VALUE, scanner("-9223372036854775808").nextLong());
+        assertThrows(ArithmeticException.class, () -> scanner("9223372036854775808").nextLong());
+        assertThrows(ArithmeticException.class, () -> scanner("-9223372036854775809").nextLong());
+        assertThrows(ArithmeticException.class, () -> scanner("-9223372036854775808").nextUnsignedLong());
+        assertThrows(ArithmeticException.class, () -> scanner("99999999999999999999").longs());
+    }
+
+    @Test
+    void position() {
+        final var scanner = scanner("12 34");
+        scanner.nextInt();
+        assertEquals(2, scanner.position());
+    }
+}
@@ -0,0 +1,84 @@
+package com.putoet.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MD5EngineTest {
+
+    @Test
+    void hexDigest() {
+        final var hasher = new MD5Engine.Hasher();
+        final var message = "hello world".getBytes(StandardCharsets.US_ASCII);
+        final var digest = new byte[MD5Engine.DIGEST_LENGTH];
+        final var hex = new byte[MD5Engine.HEX_LENGTH];
+
+        hasher.hexDigest(message, message.length, digest, hex);
+
+        assertEquals(MD5.hash("hello world").toLowerCase(), new String(hex, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void forkFromMidstate() {
+        final var prefix = new MD5Engine.Hasher();
+        prefix.update("hello ".getBytes(StandardCharsets.US_ASCII), 6);
+        final var fork = prefix.fork();
+        final var digest = new byte[MD5Engine.DIGEST_LENGTH];
+        final var hex = new byte[MD5Engine.HEX_LENGTH];
+
+        fork.update((byte) 'w');
+        fork.update("orld".getBytes(StandardCharsets.US_ASCII), 4);
+        fork.finish(digest);
+        MD5Engine.toHex(digest, hex, 0);
+        assertEquals(MD5.hash("hello world").toLowerCase(), new String(hex, StandardCharsets.US_ASCII));
+
+        prefix.update("there".getBytes(StandardCharsets.US_ASCII), 5);
+        prefix.finish(digest);
+        MD5Engine.toHex(digest, hex, 0);
+        assertEquals(MD5.hash("hello there").toLowerCase(), new String(hex, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void findFirst() {
+        assertEquals(609043, MD5Engine.findFirst("abcdef", 1, 1_000_000, MD5Engine.leadingZeroNibbles(5)).getAsLong());
+        assertEquals(1048970, MD5Engine.findFirst("pqrstuv", 1, 2_000_000, MD5Engine.leadingZeroNibbles(5)).getAsLong());
+        assertTrue(MD5Engine.findFirst("abcdef", 1, 609043, MD5Engine.leadingZeroNibbles(5)).isEmpty());
+    }
+
+    @Test
+    void searchInNonceOrder() {
+        final List<MD5Engine.Match> matches = new ArrayList<>();
+
+        final boolean stopped = MD5Engine.search("abc", 0, 50_000, digest -> digest[0] == 0, match -> {
+            matches.add(match);
+            return false;
+        });
+
+        assertFalse(stopped);
+        for (int i = 0; i < matches.size(); i++) {
+            final var match = matches.get(i);
+            assertEquals(MD5.hash("abc" + match.nonce()).toLowerCase(), match.hex());
+            assertEquals(0, match.nibble(0));
+            if (i > 0) {
+                assertTrue(matches.get(i - 1).nonce() < match.nonce());
+            }
+        }
+        assertEquals(50_000 / 256, matches.size(), 60);
+    }
+
+    @Test
+    void writeDecimal() {
+        final var buffer = new byte[20];
+
+        assertEquals(1, MD5Engine.writeDecimal(0, buffer, 0));
+        assertEquals('0', buffer[0]);
+        assertEquals(19, MD5Engine.writeDecimal(Long.MAX_VALUE, buffer, 1));
+        assertEquals(Long.toString(Long.MAX_VALUE), new String(buffer, 1, 19, StandardCharsets.US_ASCII));
+    }
+}